@@ -0,0 +1,60 @@
+package com.projectgalen.lib.benchmarks;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: CryptoBenchmark.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.crypto.Crypto;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+
+    @Param({ "64", "65536" }) public int size;
+
+    private SecretKey       secretKey;
+    private IvParameterSpec iv;
+    private byte[]          plainText;
+    private String          cipherText;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        secretKey  = Crypto.generateSecretKey();
+        iv         = Crypto.generateIv();
+        plainText  = Crypto.getRandom(size);
+        cipherText = Crypto.encryptData(secretKey, iv, plainText);
+    }
+
+    @Benchmark
+    public String decryptData() throws GeneralSecurityException {
+        return Crypto.decryptData(secretKey, iv, cipherText);
+    }
+
+    @Benchmark
+    public String encryptData() throws GeneralSecurityException {
+        return Crypto.encryptData(secretKey, iv, plainText);
+    }
+}
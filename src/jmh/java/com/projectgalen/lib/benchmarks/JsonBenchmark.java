@@ -0,0 +1,145 @@
+package com.projectgalen.lib.benchmarks;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: JsonBenchmark.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.projectgalen.lib.json.JSON;
+import com.projectgalen.lib.json.JSON.Options;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "false", "true" }) public boolean blackbird;
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private Order        order;
+    private byte[]       json;
+
+    @Setup
+    public void setup() throws IOException {
+        Options[] options = (blackbird ? new Options[] { Options.IncludeNonNull, Options.IgnoreUnknownProps, Options.Blackbird } : new Options[] { Options.IncludeNonNull, Options.IgnoreUnknownProps });
+        JSON.prewarm(List.of(Order.class), options);
+        reader = JSON.getReader(Order.class, options);
+        writer = JSON.getWriter(Order.class, options);
+        order  = Order.sample();
+        json   = writer.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order read() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return writer.writeValueAsBytes(order);
+    }
+
+    @SuppressWarnings("unused")
+    public static class Order {
+        private long    id;
+        private String  customer;
+        private String  status;
+        private int     quantity;
+        private double  price;
+        private boolean shipped;
+        private Line[]  lines;
+
+        public Order() { }
+
+        public String getCustomer()              { return customer; }
+
+        public long getId()                      { return id; }
+
+        public Line[] getLines()                 { return lines; }
+
+        public double getPrice()                 { return price; }
+
+        public int getQuantity()                 { return quantity; }
+
+        public String getStatus()                { return status; }
+
+        public boolean isShipped()               { return shipped; }
+
+        public void setCustomer(String customer) { this.customer = customer; }
+
+        public void setId(long id)               { this.id = id; }
+
+        public void setLines(Line[] lines)       { this.lines = lines; }
+
+        public void setPrice(double price)       { this.price = price; }
+
+        public void setQuantity(int quantity)    { this.quantity = quantity; }
+
+        public void setShipped(boolean shipped)  { this.shipped = shipped; }
+
+        public void setStatus(String status)     { this.status = status; }
+
+        public static Order sample() {
+            Order order = new Order();
+            order.id       = 1234567890L;
+            order.customer = "Project Galen";
+            order.status   = "OPEN";
+            order.quantity = 8;
+            order.price    = 199.95;
+            order.shipped  = false;
+            order.lines    = new Line[8];
+            for(int i = 0; i < order.lines.length; i++) {
+                Line line = new Line();
+                line.setSku("SKU-%04d".formatted(i));
+                line.setQuantity(i + 1);
+                line.setPrice(9.99 * (i + 1));
+                order.lines[i] = line;
+            }
+            return order;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Line {
+        private String sku;
+        private int    quantity;
+        private double price;
+
+        public Line() { }
+
+        public double getPrice()              { return price; }
+
+        public int getQuantity()              { return quantity; }
+
+        public String getSku()                { return sku; }
+
+        public void setPrice(double price)    { this.price = price; }
+
+        public void setQuantity(int quantity) { this.quantity = quantity; }
+
+        public void setSku(String sku)        { this.sku = sku; }
+    }
+}
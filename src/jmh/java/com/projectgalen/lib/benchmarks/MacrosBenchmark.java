@@ -0,0 +1,49 @@
+package com.projectgalen.lib.benchmarks;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: MacrosBenchmark.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.text.Macros;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MacrosBenchmark {
+
+    private static final Map<String, String> VALUES = Map.of("men", "${women}", "women", "programmers", "country", "computers", "aid", "${faid}", "faid", "foreign ${aid}", "good", "bad");
+
+    private final String plain  = "Now is the time for all good men to come to the aid of their country.";
+    private final String macros = "\\\\Now is the time for all \\${good} ${men} to come to the ${aid} of their ${country}.";
+
+    @Benchmark
+    public String expandNoMacros() {
+        return Macros.expand(plain, s -> Optional.ofNullable(VALUES.get(s)));
+    }
+
+    @Benchmark
+    public String expandNested() {
+        return Macros.expand(macros, s -> Optional.ofNullable(VALUES.get(s)));
+    }
+}
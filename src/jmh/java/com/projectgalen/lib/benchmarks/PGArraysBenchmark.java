@@ -0,0 +1,77 @@
+package com.projectgalen.lib.benchmarks;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: PGArraysBenchmark.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.PGArrays;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PGArraysBenchmark {
+
+    @Param({ "8", "1024" }) public int size;
+
+    private int[]    ints;
+    private String[] strings;
+
+    @Setup
+    public void setup() {
+        ints    = new int[size];
+        strings = new String[size];
+        for(int i = 0; i < size; i++) {
+            ints[i]    = i;
+            strings[i] = Integer.toString(i);
+        }
+    }
+
+    @Benchmark
+    public int[] appendInt() {
+        return PGArrays.append(42, ints);
+    }
+
+    @Benchmark
+    public String[] appendObject() {
+        return PGArrays.append("42", strings);
+    }
+
+    @Benchmark
+    public int[] concatInt() {
+        return PGArrays.concat(ints, ints);
+    }
+
+    @Benchmark
+    public String[] concatObject() {
+        return PGArrays.concat(strings, strings);
+    }
+
+    @Benchmark
+    public int[] prependInt() {
+        return PGArrays.prepend(42, ints);
+    }
+
+    @Benchmark
+    public String[] prependObject() {
+        return PGArrays.prepend("42", strings);
+    }
+}
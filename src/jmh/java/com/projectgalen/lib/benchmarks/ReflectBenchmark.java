@@ -0,0 +1,99 @@
+package com.projectgalen.lib.benchmarks;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: ReflectBenchmark.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.annotations.Equals;
+import com.projectgalen.lib.utils.annotations.Hash;
+import com.projectgalen.lib.utils.reflect.Reflect;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectBenchmark {
+
+    private Bean   bean1;
+    private Bean   bean2;
+    private Field  nameField;
+    private Method getCount;
+
+    @Setup
+    public void setup() {
+        bean1     = new Bean("Galen", 42, 3.14);
+        bean2     = new Bean("Galen", 42, 3.14);
+        nameField = Reflect.getField(Bean.class, "name");
+        getCount  = Reflect.getMethod(Bean.class, "getCount");
+    }
+
+    @Benchmark
+    public boolean easyEquals() {
+        return Reflect.easyEquals(bean1, bean2);
+    }
+
+    @Benchmark
+    public int easyHash() {
+        return Reflect.easyHash(bean1);
+    }
+
+    @Benchmark
+    public Object getFromField() {
+        return Reflect.getFromField(nameField, bean1);
+    }
+
+    @Benchmark
+    public Object getFromGetter() {
+        return Reflect.getFromGetter(getCount, bean1);
+    }
+
+    @Benchmark
+    public Method getMethod() {
+        return Reflect.getMethod(Bean.class, "getCount");
+    }
+
+    @SuppressWarnings("unused")
+    public static class Bean {
+        private @Equals @Hash String name;
+        private @Equals @Hash int    count;
+        private @Equals       double ratio;
+
+        public Bean(String name, int count, double ratio) {
+            this.name  = name;
+            this.count = count;
+            this.ratio = ratio;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+    }
+}
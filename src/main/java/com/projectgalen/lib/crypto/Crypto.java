@@ -20,6 +20,9 @@ package com.projectgalen.lib.crypto;
 import com.projectgalen.lib.utils.PGProperties;
 import com.projectgalen.lib.utils.PGResourceBundle;
 import com.projectgalen.lib.utils.text.Str;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.jetbrains.annotations.NotNull;
 
@@ -27,11 +30,20 @@ import javax.crypto.Cipher;
 import javax.crypto.KeyAgreement;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 
 @SuppressWarnings("unused")
@@ -40,24 +52,150 @@ public final class Crypto {
     private static final PGResourceBundle msgs  = new PGResourceBundle("com.projectgalen.lib.crypto.crypto_messages");
     private static final PGProperties     props = PGProperties.getProperties("crypto_settings.properties", Crypto.class);
 
+    private static final String                      AES_ALGORITHM      = props.getProperty("crypto.aes.algorithm");
+    private static final int                         AES_KEY_LENGTH     = props.getInt("crypto.aes.key_length");
+    private static final String                      AES_WITH_IV        = props.getProperty("crypto.aes.transformation.with_iv");
+    private static final String                      AES_NO_IV          = props.getProperty("crypto.aes.transformation.no_iv");
+    private static final String                      DH_ALGORITHM       = props.getProperty("crypto.diffie_hellman.algorithm");
+    private static final int                         DH_KEY_LENGTH      = props.getInt("crypto.diffie_hellman.key_length");
+    private static final String                      PROVIDER           = props.getProperty("crypto.bouncy-castle.provider");
+    private static final int                         IV_LENGTH          = props.getInt("crypto.iv.length");
+    private static final int                         STREAM_BUFFER_SIZE = props.getInt("crypto.stream.buffer_size");
+    private static final Engines.Pool<Cipher>        CIPHERS_WITH_IV    = Engines.cipherPool(AES_WITH_IV);
+    private static final Engines.Pool<Cipher>        CIPHERS_NO_IV      = Engines.cipherPool(AES_NO_IV);
+    private static final Engines.Pool<MessageDigest> SHA256_DIGESTS     = Engines.messageDigestPool("SHA-256");
+    private static final Engines.Pool<KeyFactory>    DH_KEY_FACTORIES   = Engines.keyFactoryPool(DH_ALGORITHM, PROVIDER);
+    private static final byte[]                      SESSION_KEY_INFO   = props.getProperty("crypto.session.key_info").getBytes(StandardCharsets.UTF_8);
+
     private final IvParameterSpec iv;
     private final SecretKey       secretKey;
     private final PublicKeyInfo   publicKeyInfo;
     private final KeyPair         keyPair;
+    private final GcmCipher       gcm;
 
     public Crypto(@NotNull DiffieHellmanHandshakeDelegate delegate) throws Exception {
-        keyPair       = generateKeyPair();
-        publicKeyInfo = delegate.getPublicKeyInfo(getBase64EncodedPublicKey(keyPair));
-        secretKey     = createSharedSecret(keyPair.getPrivate(), publicKeyInfo.publicKey());
-        iv            = new IvParameterSpec(decryptBytes(secretKey, publicKeyInfo.iv()));
+        this(generateKeyPair(), delegate);
+    }
+
+    /**
+     * Performs the handshake using an existing key pair, such as one that was generated ahead of time. The key pair can be Diffie-Hellman or any other key
+     * agreement algorithm that the Bouncy Castle provider supports, such as X25519.
+     *
+     * @param keyPair  The key pair.
+     * @param delegate The delegate that exchanges public keys with the peer.
+     *
+     * @throws Exception If the handshake fails.
+     */
+    public Crypto(@NotNull KeyPair keyPair, @NotNull DiffieHellmanHandshakeDelegate delegate) throws Exception {
+        this.keyPair       = keyPair;
+        this.publicKeyInfo = delegate.getPublicKeyInfo(getBase64EncodedPublicKey(keyPair));
+        this.secretKey     = createSharedSecret(keyPair.getPrivate(), publicKeyInfo.publicKey());
+        this.iv            = new IvParameterSpec(decryptBytes(secretKey, publicKeyInfo.iv()));
+        this.gcm           = createGcm(secretKey, iv.getIV(), keyPair.getPublic().getEncoded(), Str.base64Decode(publicKeyInfo.publicKey()));
+    }
+
+    /**
+     * Used by {@link CryptoSessionFactory} when the shared secret has already been derived.
+     */
+    Crypto(@NotNull KeyPair keyPair, @NotNull PublicKeyInfo publicKeyInfo, @NotNull SecretKey secretKey) throws GeneralSecurityException {
+        this.keyPair       = keyPair;
+        this.publicKeyInfo = publicKeyInfo;
+        this.secretKey     = secretKey;
+        this.iv            = new IvParameterSpec(decryptBytes(secretKey, publicKeyInfo.iv()));
+        this.gcm           = createGcm(secretKey, iv.getIV(), keyPair.getPublic().getEncoded(), Str.base64Decode(publicKeyInfo.publicKey()));
+    }
+
+    public @NotNull String decrypt(@NotNull CharSequence base64EncodedCipherText) throws GeneralSecurityException {
+        return decryptData(secretKey, iv, base64EncodedCipherText);
     }
 
     public @NotNull String decrypt(@NotNull String base64EncodedCipherText) throws GeneralSecurityException {
-        return decryptData(secretKey, iv, base64EncodedCipherText);
+        return decrypt((CharSequence)base64EncodedCipherText);
+    }
+
+    /**
+     * Decodes and decrypts Base64 encoded cipher text into a caller-supplied array without any intermediate copies. The cipher text is decoded into
+     * {@code dst} and then decrypted in place so {@code dst} needs room for {@link Str#base64DecodedLength(CharSequence)} bytes, not just the plain text.
+     *
+     * @param base64EncodedCipherText The Base64 encoded cipher text.
+     * @param dst                     The array to receive the plain text.
+     * @param dstOffset               The index in {@code dst} of the first byte of plain text.
+     *
+     * @return The number of bytes of plain text stored in {@code dst}.
+     *
+     * @throws GeneralSecurityException If the cipher text cannot be decrypted.
+     */
+    public int decrypt(@NotNull CharSequence base64EncodedCipherText, byte @NotNull [] dst, int dstOffset) throws GeneralSecurityException {
+        return decryptData(secretKey, iv, base64EncodedCipherText, dst, dstOffset);
+    }
+
+    /**
+     * Decrypts everything read from the input stream and writes the plain text to the output stream in constant memory. Neither stream is closed.
+     *
+     * @param in  The stream to read the cipher text from.
+     * @param out The stream to write the plain text to.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException              If an I/O error occurs.
+     * @throws GeneralSecurityException If the cipher text cannot be decrypted.
+     */
+    public long decrypt(@NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        return decryptData(secretKey, iv, in, out);
+    }
+
+    /**
+     * Decrypts everything read from the input channel and writes the plain text to the output channel in constant memory. Both channels
+     * should be in blocking mode. Neither channel is closed.
+     *
+     * @param in  The channel to read the cipher text from.
+     * @param out The channel to write the plain text to.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException              If an I/O error occurs.
+     * @throws GeneralSecurityException If the cipher text cannot be decrypted.
+     */
+    public long decrypt(@NotNull ReadableByteChannel in, @NotNull WritableByteChannel out) throws IOException, GeneralSecurityException {
+        return decryptData(secretKey, iv, in, out);
+    }
+
+    /**
+     * Decrypts the remaining bytes of {@code src} into {@code dst}. Either buffer may be direct.
+     *
+     * @param src The cipher text.
+     * @param dst The buffer to receive the plain text.
+     *
+     * @return The number of bytes stored in {@code dst}.
+     *
+     * @throws ShortBufferException     If {@code dst} does not have enough room for the plain text.
+     * @throws GeneralSecurityException If the cipher text cannot be decrypted.
+     */
+    public int decrypt(@NotNull ByteBuffer src, @NotNull ByteBuffer dst) throws GeneralSecurityException {
+        return decryptData(secretKey, iv, src, dst);
+    }
+
+    /**
+     * The same as {@link #decrypt(InputStream, OutputStream)} except that the cipher text is Base64 encoded and decoded as it is read.
+     *
+     * @param in  The stream to read the Base64 encoded cipher text from.
+     * @param out The stream to write the plain text to.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException              If an I/O error occurs.
+     * @throws GeneralSecurityException If the cipher text cannot be decrypted.
+     */
+    public long decryptBase64(@NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        return decryptData(secretKey, iv, Base64.getDecoder().wrap(in), out);
+    }
+
+    public byte @NotNull [] decryptBytes(@NotNull CharSequence base64EncodedCipherText) throws GeneralSecurityException {
+        return decryptBytes(secretKey, iv, base64EncodedCipherText);
     }
 
     public byte @NotNull [] decryptBytes(@NotNull String base64EncodedCipherText) throws GeneralSecurityException {
-        return decryptBytes(secretKey, iv, base64EncodedCipherText);
+        return decryptBytes((CharSequence)base64EncodedCipherText);
     }
 
     public @NotNull String encrypt(@NotNull String str) throws GeneralSecurityException {
@@ -68,6 +206,102 @@ public final class Crypto {
         return encryptData(secretKey, iv, data);
     }
 
+    /**
+     * Encrypts the data and appends the Base64 encoded cipher text to {@code out} without creating an intermediate {@link String}.
+     *
+     * @param data The plain text.
+     * @param out  The {@link Appendable} to append the Base64 encoded cipher text to.
+     *
+     * @return The {@link Appendable}.
+     *
+     * @throws IOException              If the {@link Appendable} throws one.
+     * @throws GeneralSecurityException If the plain text cannot be encrypted.
+     */
+    public <T extends Appendable> @NotNull T encrypt(byte @NotNull [] data, @NotNull T out) throws IOException, GeneralSecurityException {
+        return encryptData(secretKey, iv, data, out);
+    }
+
+    public <T extends Appendable> @NotNull T encrypt(@NotNull String str, @NotNull T out) throws IOException, GeneralSecurityException {
+        return encryptData(secretKey, iv, str.getBytes(StandardCharsets.UTF_8), out);
+    }
+
+    /**
+     * Encrypts everything read from the input stream and writes the cipher text to the output stream in constant memory. Neither stream is closed.
+     *
+     * @param in  The stream to read the plain text from.
+     * @param out The stream to write the cipher text to.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException              If an I/O error occurs.
+     * @throws GeneralSecurityException If the plain text cannot be encrypted.
+     */
+    public long encrypt(@NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        return encryptData(secretKey, iv, in, out);
+    }
+
+    /**
+     * Encrypts everything read from the input channel and writes the cipher text to the output channel in constant memory. Both channels
+     * should be in blocking mode. Neither channel is closed.
+     *
+     * @param in  The channel to read the plain text from.
+     * @param out The channel to write the cipher text to.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException              If an I/O error occurs.
+     * @throws GeneralSecurityException If the plain text cannot be encrypted.
+     */
+    public long encrypt(@NotNull ReadableByteChannel in, @NotNull WritableByteChannel out) throws IOException, GeneralSecurityException {
+        return encryptData(secretKey, iv, in, out);
+    }
+
+    /**
+     * Encrypts the remaining bytes of {@code src} into {@code dst}. Either buffer may be direct.
+     *
+     * @param src The plain text.
+     * @param dst The buffer to receive the cipher text.
+     *
+     * @return The number of bytes stored in {@code dst}.
+     *
+     * @throws ShortBufferException     If {@code dst} does not have enough room for the cipher text.
+     * @throws GeneralSecurityException If the plain text cannot be encrypted.
+     */
+    public int encrypt(@NotNull ByteBuffer src, @NotNull ByteBuffer dst) throws GeneralSecurityException {
+        return encryptData(secretKey, iv, src, dst);
+    }
+
+    /**
+     * The same as {@link #encrypt(InputStream, OutputStream)} except that the cipher text is Base64 encoded as it is written. The output stream is not
+     * closed.
+     *
+     * @param in  The stream to read the plain text from.
+     * @param out The stream to write the Base64 encoded cipher text to.
+     *
+     * @return The number of bytes of cipher text written before Base64 encoding.
+     *
+     * @throws IOException              If an I/O error occurs.
+     * @throws GeneralSecurityException If the plain text cannot be encrypted.
+     */
+    public long encryptBase64(@NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        try(OutputStream b64 = Base64.getEncoder().wrap(new NonClosingOutputStream(out))) {
+            return encryptData(secretKey, iv, in, b64);
+        }
+    }
+
+    /**
+     * Returns an AES-GCM cipher for this session. Unlike {@link #encrypt(byte[])}, every message gets its own nonce and is authenticated. The key is derived
+     * from the shared secret and this session's IV, see {@link #deriveSessionKey(SecretKey, byte[])}, so sessions never share a GCM key even when they share
+     * the shared secret. Both peers encrypt under the same session key so the fixed field of the nonces is each peer's role: 0 for the peer with the lower
+     * public key, compared as unsigned bytes, and 1 for the other one. A peer that is not using this class can get the matching cipher from
+     * {@link #createGcm(SecretKey, byte[], byte[], byte[])}.
+     *
+     * @return The cipher.
+     */
+    public @NotNull GcmCipher getGcm() {
+        return gcm;
+    }
+
     public IvParameterSpec getIv() {
         return iv;
     }
@@ -89,25 +323,46 @@ public final class Crypto {
         String        f1 = props.getProperty("to.str.fmt1");
         String        f2 = props.getProperty("to.str.fmt2");
 
-        sb.append(String.format(f1, msgs.getString("msg.label.provider"), props.getProperty("crypto.bouncy-castle.provider"))).append("; ");
+        sb.append(String.format(f1, msgs.getString("msg.label.provider"), PROVIDER)).append("; ");
         sb.append(String.format(f1, msgs.getString("msg.label.public_key_info"), publicKeyInfo)).append("; ");
-        sb.append(String.format(f2, msgs.getString("msg.label.iv_length"), props.getInt("crypto.iv.length"))).append("; ");
-        sb.append(String.format(f1, msgs.getString("msg.label.aes_algorithm"), props.getProperty("crypto.aes.algorithm"))).append("; ");
-        sb.append(String.format(f2, msgs.getString("msg.label.aes_key_length"), props.getInt("crypto.aes.key_length"))).append("; ");
-        sb.append(String.format(f1, msgs.getString("msg.label.aes_transform"), props.getProperty("crypto.aes.transformation.with_iv"))).append("; ");
-        sb.append(String.format(f1, msgs.getString("msg.label.aes_transform_no_iv"), props.getProperty("crypto.aes.transformation.no_iv"))).append("; ");
-        sb.append(String.format(f1, msgs.getString("msg.label.diffie_hellman_algorithm"), props.getProperty("crypto.diffie_hellman.algorithm"))).append("; ");
-        sb.append(String.format(f2, msgs.getString("msg.label.diffie_hellman_key_length"), props.getInt("crypto.diffie_hellman.key_length"))).append(';');
+        sb.append(String.format(f2, msgs.getString("msg.label.iv_length"), IV_LENGTH)).append("; ");
+        sb.append(String.format(f1, msgs.getString("msg.label.aes_algorithm"), AES_ALGORITHM)).append("; ");
+        sb.append(String.format(f2, msgs.getString("msg.label.aes_key_length"), AES_KEY_LENGTH)).append("; ");
+        sb.append(String.format(f1, msgs.getString("msg.label.aes_transform"), AES_WITH_IV)).append("; ");
+        sb.append(String.format(f1, msgs.getString("msg.label.aes_transform_no_iv"), AES_NO_IV)).append("; ");
+        sb.append(String.format(f1, msgs.getString("msg.label.diffie_hellman_algorithm"), DH_ALGORITHM)).append("; ");
+        sb.append(String.format(f2, msgs.getString("msg.label.diffie_hellman_key_length"), DH_KEY_LENGTH)).append(';');
 
         return sb.toString();
     }
 
+    /**
+     * Creates the AES-GCM cipher for one side of a session, the same one that {@link #getGcm()} returns on that side.
+     *
+     * @param sharedSecret   The shared secret from the key agreement.
+     * @param iv             The session's IV. The responder must choose a new random IV for every session.
+     * @param localPublicKey The encoded public key of this side.
+     * @param peerPublicKey  The encoded public key of the other side.
+     *
+     * @return The cipher.
+     *
+     * @throws GeneralSecurityException If the key cannot be derived.
+     */
+    public static @NotNull GcmCipher createGcm(@NotNull SecretKey sharedSecret, byte @NotNull [] iv, byte @NotNull [] localPublicKey, byte @NotNull [] peerPublicKey) throws GeneralSecurityException {
+        return new GcmCipher(deriveSessionKey(sharedSecret, iv), getGcmFixedField(localPublicKey, peerPublicKey));
+    }
+
     public static byte @NotNull [] createSHA256Digest(byte @NotNull [] secretBytes) throws NoSuchAlgorithmException {
-        return MessageDigest.getInstance("SHA-256").digest(secretBytes);
+        MessageDigest md;
+        try { md = SHA256_DIGESTS.borrow(); }
+        catch(NoSuchAlgorithmException e) { throw e; }
+        catch(GeneralSecurityException e) { throw new NoSuchAlgorithmException(e); }
+        try { return md.digest(secretBytes); }
+        finally { SHA256_DIGESTS.release(md); }
     }
 
     public static @NotNull SecretKeySpec createSecretKeyFromDigest(byte @NotNull [] digest) {
-        return new SecretKeySpec(digest, props.getProperty("crypto.aes.algorithm"));
+        return new SecretKeySpec(digest, AES_ALGORITHM);
     }
 
     public static @NotNull SecretKey createSecreteKeyFromDigest(String encDigest) {
@@ -131,60 +386,172 @@ public final class Crypto {
     }
 
     public static byte @NotNull [] createSharedSecretDigest(@NotNull PrivateKey privateKey, byte @NotNull [] publicKeyBytes) throws GeneralSecurityException {
-        KeyFactory keyFactory = KeyFactory.getInstance(props.getProperty("crypto.diffie_hellman.algorithm"), props.getProperty("crypto.bouncy-castle.provider"));
-        return createSharedSecretDigest(privateKey, keyFactory.generatePublic(new X509EncodedKeySpec(publicKeyBytes)));
+        String                   algorithm  = privateKey.getAlgorithm();
+        Engines.Pool<KeyFactory> pool       = (DH_ALGORITHM.equals(algorithm) ? DH_KEY_FACTORIES : Engines.keyFactoryPool(algorithm, PROVIDER));
+        KeyFactory               keyFactory = pool.borrow();
+        PublicKey                publicKey;
+        try { publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(publicKeyBytes)); }
+        finally { pool.release(keyFactory); }
+        return createSharedSecretDigest(privateKey, publicKey);
     }
 
     public static byte @NotNull [] createSharedSecretDigest(@NotNull PrivateKey privateKey, @NotNull PublicKey publicKey) throws GeneralSecurityException {
-        KeyAgreement keyAgree = getKeyAgreement(privateKey);
+        // Not pooled: most of the cost is in init(...), not getInstance(...), and a pooled agreement would keep the private key reachable.
+        KeyAgreement keyAgree = KeyAgreement.getInstance(privateKey.getAlgorithm(), PROVIDER);
+        keyAgree.init(privateKey);
         keyAgree.doPhase(publicKey, true);
-        return createSHA256Digest(keyAgree.generateSecret());
+        byte[] secret = keyAgree.generateSecret();
+        try { return createSHA256Digest(secret); }
+        finally { Arrays.fill(secret, (byte)0); }
     }
 
     public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, byte @NotNull [] cipherTextData) throws GeneralSecurityException {
-        Cipher c = Cipher.getInstance(props.getProperty("crypto.aes.transformation.no_iv"));
-        c.init(Cipher.DECRYPT_MODE, secretKey);
-        return c.doFinal(cipherTextData);
+        Cipher c = CIPHERS_NO_IV.borrow();
+        try {
+            c.init(Cipher.DECRYPT_MODE, secretKey);
+            return c.doFinal(cipherTextData);
+        }
+        finally { CIPHERS_NO_IV.release(c); }
     }
 
-    public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull String cipherText) throws GeneralSecurityException {
+    public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull CharSequence cipherText) throws GeneralSecurityException {
         return decryptBytes(secretKey, Str.base64Decode(cipherText));
     }
 
-    public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull String cipherText) throws GeneralSecurityException {
+    public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull String cipherText) throws GeneralSecurityException {
+        return decryptBytes(secretKey, (CharSequence)cipherText);
+    }
+
+    public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull CharSequence cipherText) throws GeneralSecurityException {
         return decryptBytes(secretKey, iv, Str.base64Decode(cipherText));
     }
 
+    public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull String cipherText) throws GeneralSecurityException {
+        return decryptBytes(secretKey, iv, (CharSequence)cipherText);
+    }
+
     public static byte @NotNull [] decryptBytes(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, byte @NotNull [] cipherTextData) throws GeneralSecurityException {
-        Cipher c = Cipher.getInstance(props.getProperty("crypto.aes.transformation.with_iv"));
-        c.init(Cipher.DECRYPT_MODE, secretKey, iv);
-        return c.doFinal(cipherTextData);
+        Cipher c = getCipher(Cipher.DECRYPT_MODE, secretKey, iv);
+        try { return c.doFinal(cipherTextData); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static long decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        Cipher c = getCipher(Cipher.DECRYPT_MODE, secretKey, iv);
+        try { return transform(c, in, out); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static long decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull ReadableByteChannel in, @NotNull WritableByteChannel out) throws IOException, GeneralSecurityException {
+        Cipher c = getCipher(Cipher.DECRYPT_MODE, secretKey, iv);
+        try { return transform(c, in, out); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static int decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull ByteBuffer src, @NotNull ByteBuffer dst) throws GeneralSecurityException {
+        Cipher c = getCipher(Cipher.DECRYPT_MODE, secretKey, iv);
+        try { return c.doFinal(src, dst); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static @NotNull String decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull CharSequence cipherText) throws GeneralSecurityException {
+        byte[] buffer = Str.base64Decode(cipherText);
+        return new String(buffer, 0, decryptInPlace(secretKey, iv, buffer, 0, buffer.length), StandardCharsets.UTF_8);
     }
 
     public static @NotNull String decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull String cipherText) throws GeneralSecurityException {
-        return decryptData(secretKey, iv, Str.base64Decode(cipherText));
+        return decryptData(secretKey, iv, (CharSequence)cipherText);
+    }
+
+    public static int decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull CharSequence cipherText, byte @NotNull [] dst, int dstOffset) throws GeneralSecurityException {
+        return decryptInPlace(secretKey, iv, dst, dstOffset, Str.base64Decode(cipherText, dst, dstOffset));
     }
 
     public static @NotNull String decryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, byte @NotNull [] cipherTextData) throws GeneralSecurityException {
         return new String(decryptBytes(secretKey, iv, cipherTextData), StandardCharsets.UTF_8);
     }
 
+    public static @NotNull String decryptData(@NotNull SecretKey secretKey, @NotNull CharSequence cipherText) throws GeneralSecurityException {
+        byte[] buffer = Str.base64Decode(cipherText);
+        Cipher c      = CIPHERS_NO_IV.borrow();
+        try {
+            c.init(Cipher.DECRYPT_MODE, secretKey);
+            return new String(buffer, 0, c.doFinal(buffer, 0, buffer.length, buffer, 0), StandardCharsets.UTF_8);
+        }
+        finally { CIPHERS_NO_IV.release(c); }
+    }
+
     public static @NotNull String decryptData(@NotNull SecretKey secretKey, @NotNull String cipherText) throws GeneralSecurityException {
-        return decryptData(secretKey, Str.base64Decode(cipherText));
+        return decryptData(secretKey, (CharSequence)cipherText);
     }
 
     public static @NotNull String decryptData(@NotNull SecretKey secretKey, byte @NotNull [] cipherTextData) throws GeneralSecurityException {
         return new String(decryptBytes(secretKey, cipherTextData), StandardCharsets.UTF_8);
     }
 
+    /**
+     * Derives a key for one session with HKDF-SHA256, using the shared secret as the input key material and the session's IV as the salt. Deriving the key
+     * is cheap so the expensive key agreement can be cached and reused, see {@link CryptoSessionFactory}, without two sessions ever encrypting under the same
+     * key.
+     *
+     * @param sharedSecret The shared secret from the key agreement.
+     * @param salt         A value that is new for every session, such as its IV.
+     *
+     * @return The session key.
+     *
+     * @throws GeneralSecurityException If the shared secret cannot be encoded.
+     */
+    public static @NotNull SecretKey deriveSessionKey(@NotNull SecretKey sharedSecret, byte @NotNull [] salt) throws GeneralSecurityException {
+        byte[] ikm = sharedSecret.getEncoded();
+        if(ikm == null) throw new InvalidKeyException(msgs.getString("msg.err.key_not_encodable"));
+        byte[] key = new byte[AES_KEY_LENGTH / 8];
+        try {
+            HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+            hkdf.init(new HKDFParameters(ikm, salt, SESSION_KEY_INFO));
+            hkdf.generateBytes(key, 0, key.length);
+            return new SecretKeySpec(key, AES_ALGORITHM);
+        }
+        finally {
+            Arrays.fill(ikm, (byte)0);
+            Arrays.fill(key, (byte)0);
+        }
+    }
+
     public static @NotNull String encryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull String plainText) throws GeneralSecurityException {
         return encryptData(secretKey, iv, plainText.getBytes(StandardCharsets.UTF_8));
     }
 
     public static @NotNull String encryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, byte @NotNull [] plainTextData) throws GeneralSecurityException {
-        Cipher c = Cipher.getInstance(props.getProperty("crypto.aes.transformation.with_iv"));
-        c.init(Cipher.ENCRYPT_MODE, secretKey, iv);
-        return Base64.getEncoder().encodeToString(c.doFinal(plainTextData));
+        Cipher c = getCipher(Cipher.ENCRYPT_MODE, secretKey, iv);
+        try { return encryptToBase64(c, plainTextData); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static <T extends Appendable> @NotNull T encryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, byte @NotNull [] plainTextData, @NotNull T out) throws IOException, GeneralSecurityException {
+        Cipher c = getCipher(Cipher.ENCRYPT_MODE, secretKey, iv);
+        try {
+            byte[] cipherText = c.doFinal(plainTextData);
+            return Str.base64Encode(cipherText, 0, cipherText.length, out);
+        }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static long encryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        Cipher c = getCipher(Cipher.ENCRYPT_MODE, secretKey, iv);
+        try { return transform(c, in, out); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static long encryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull ReadableByteChannel in, @NotNull WritableByteChannel out) throws IOException, GeneralSecurityException {
+        Cipher c = getCipher(Cipher.ENCRYPT_MODE, secretKey, iv);
+        try { return transform(c, in, out); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    public static int encryptData(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, @NotNull ByteBuffer src, @NotNull ByteBuffer dst) throws GeneralSecurityException {
+        Cipher c = getCipher(Cipher.ENCRYPT_MODE, secretKey, iv);
+        try { return c.doFinal(src, dst); }
+        finally { CIPHERS_WITH_IV.release(c); }
     }
 
     public static @NotNull String encryptData(@NotNull SecretKey secretKey, @NotNull String plainText) throws GeneralSecurityException {
@@ -192,51 +559,198 @@ public final class Crypto {
     }
 
     public static @NotNull String encryptData(@NotNull SecretKey secretKey, byte @NotNull [] plainTextData) throws GeneralSecurityException {
-        Cipher c = Cipher.getInstance(props.getProperty("crypto.aes.transformation.no_iv"));
-        c.init(Cipher.ENCRYPT_MODE, secretKey);
-        return Base64.getEncoder().encodeToString(c.doFinal(plainTextData));
+        Cipher c = CIPHERS_NO_IV.borrow();
+        try {
+            c.init(Cipher.ENCRYPT_MODE, secretKey);
+            return encryptToBase64(c, plainTextData);
+        }
+        finally { CIPHERS_NO_IV.release(c); }
     }
 
     public static @NotNull IvParameterSpec generateIv() {
-        return new IvParameterSpec(getRandom(props.getInt("crypto.iv.length")));
+        return new IvParameterSpec(getRandom(IV_LENGTH));
     }
 
     public static @NotNull KeyPair generateKeyPair() throws GeneralSecurityException {
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(props.getProperty("crypto.diffie_hellman.algorithm"), props.getProperty("crypto.bouncy-castle.provider"));
-        keyGen.initialize(props.getInt("crypto.diffie_hellman.key_length"));
+        return generateKeyPair(DH_ALGORITHM);
+    }
+
+    /**
+     * Generates a key pair for the given key agreement algorithm using the Bouncy Castle provider. For Diffie-Hellman the key length comes from
+     * {@code crypto.diffie_hellman.key_length}. Other algorithms, such as X25519, use their fixed key size.
+     *
+     * @param algorithm The key agreement algorithm.
+     *
+     * @return The key pair.
+     *
+     * @throws GeneralSecurityException If the algorithm is not supported.
+     */
+    public static @NotNull KeyPair generateKeyPair(@NotNull String algorithm) throws GeneralSecurityException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm, PROVIDER);
+        if(DH_ALGORITHM.equals(algorithm)) keyGen.initialize(DH_KEY_LENGTH, Engines.getSecureRandom());
         return keyGen.genKeyPair();
     }
 
     public static @NotNull SecretKey generateSecretKey() throws NoSuchAlgorithmException {
-        KeyGenerator keyGenerator = KeyGenerator.getInstance(props.getProperty("crypto.aes.algorithm"));
-        keyGenerator.init(props.getInt("crypto.aes.key_length"));
+        KeyGenerator keyGenerator = KeyGenerator.getInstance(AES_ALGORITHM);
+        keyGenerator.init(AES_KEY_LENGTH, Engines.getSecureRandom());
         return keyGenerator.generateKey();
     }
 
     public static @NotNull String getBase64EncodedPublicKey(@NotNull KeyPair keyPair) {
-        return Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        return Str.base64Encode(keyPair.getPublic().getEncoded());
     }
 
     public static @NotNull String getBase64EncodedSecretKey(@NotNull SecretKey secretKey) {
-        return Base64.getEncoder().encodeToString(secretKey.getEncoded());
+        return Str.base64Encode(secretKey.getEncoded());
+    }
+
+    /**
+     * Returns the fixed field of the AES-GCM nonces for one side of a session. The two sides always get different fixed fields so they never use the same
+     * nonce even though they share a key.
+     *
+     * @param localPublicKey The encoded public key of this side.
+     * @param peerPublicKey  The encoded public key of the other side.
+     *
+     * @return 0 if this side's public key is the lower of the two, compared as unsigned bytes, otherwise 1.
+     */
+    public static int getGcmFixedField(byte @NotNull [] localPublicKey, byte @NotNull [] peerPublicKey) {
+        return ((Arrays.compareUnsigned(localPublicKey, peerPublicKey) < 0) ? 0 : 1);
     }
 
     public static @NotNull KeyAgreement getKeyAgreement(@NotNull PrivateKey privateKey) throws GeneralSecurityException {
-        KeyAgreement keyAgree = KeyAgreement.getInstance(props.getProperty("crypto.diffie_hellman.algorithm"), props.getProperty("crypto.bouncy-castle.provider"));
+        KeyAgreement keyAgree = KeyAgreement.getInstance(DH_ALGORITHM, PROVIDER);
         keyAgree.init(privateKey);
         return keyAgree;
     }
 
     public static @NotNull Provider getProvider() {
-        return Security.getProvider(props.getProperty("crypto.bouncy-castle.provider"));
+        return Security.getProvider(PROVIDER);
     }
 
     public static byte @NotNull [] getRandom(int size) {
         byte @NotNull [] iv = new byte[size];
-        new SecureRandom().nextBytes(iv);
+        Engines.getSecureRandom().nextBytes(iv);
         return iv;
     }
 
+    /**
+     * Borrows a cipher from {@code CIPHERS_WITH_IV} and initializes it. The caller must release it back to the pool.
+     */
+    private static @NotNull Cipher getCipher(int mode, @NotNull SecretKey secretKey, @NotNull IvParameterSpec iv) throws GeneralSecurityException {
+        Cipher c = CIPHERS_WITH_IV.borrow();
+        try {
+            c.init(mode, secretKey, iv);
+            return c;
+        }
+        catch(GeneralSecurityException | RuntimeException e) {
+            CIPHERS_WITH_IV.release(c);
+            throw e;
+        }
+    }
+
+    /**
+     * Decrypts cipher text in place. The plain text is never longer than the cipher text so it fits in the same array.
+     */
+    private static int decryptInPlace(@NotNull SecretKey secretKey, @NotNull IvParameterSpec iv, byte @NotNull [] buffer, int offset, int length) throws GeneralSecurityException {
+        Cipher c = getCipher(Cipher.DECRYPT_MODE, secretKey, iv);
+        try { return c.doFinal(buffer, offset, length, buffer, offset); }
+        finally { CIPHERS_WITH_IV.release(c); }
+    }
+
+    /**
+     * Encrypts into the tail of a buffer that is big enough for the Base64 encoding and then encodes it in place, so the only allocations are that buffer and
+     * the resulting {@link String}. The two extra bytes cover the case where the cipher produces less than {@code getOutputSize(...)} promised.
+     */
+    private static @NotNull String encryptToBase64(@NotNull Cipher c, byte @NotNull [] plainTextData) throws GeneralSecurityException {
+        int    size   = c.getOutputSize(plainTextData.length);
+        byte[] buffer = new byte[Str.base64EncodedLength(size) + 2];
+        int    start  = (buffer.length - size);
+        int    length = c.doFinal(plainTextData, 0, plainTextData.length, buffer, start);
+        return new String(buffer, 0, Str.base64EncodeInPlace(buffer, start, length), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * The cipher may be holding back up to one block from the previous update so make room for that too.
+     */
+    private static int getOutputSize(@NotNull Cipher c, int inputSize) {
+        return c.getOutputSize(inputSize + Math.max(c.getBlockSize(), 1));
+    }
+
+    private static long transform(@NotNull Cipher c, @NotNull InputStream in, @NotNull OutputStream out) throws IOException, GeneralSecurityException {
+        int    size   = STREAM_BUFFER_SIZE;
+        byte[] inBuf  = new byte[size];
+        byte[] outBuf = new byte[getOutputSize(c, size)];
+        long   total  = 0;
+
+        try {
+            for(int n = in.read(inBuf); n >= 0; n = in.read(inBuf)) {
+                int m = c.update(inBuf, 0, n, outBuf);
+                out.write(outBuf, 0, m);
+                total += m;
+            }
+            int m = c.doFinal(outBuf, 0);
+            out.write(outBuf, 0, m);
+            out.flush();
+            return (total + m);
+        }
+        finally {
+            Arrays.fill(inBuf, (byte)0);
+            Arrays.fill(outBuf, (byte)0);
+        }
+    }
+
+    private static long transform(@NotNull Cipher c, @NotNull ReadableByteChannel in, @NotNull WritableByteChannel out) throws IOException, GeneralSecurityException {
+        // Heap buffers, not direct ones, so they can be wiped the same way as the stream version's and never pin plain text in off-heap memory.
+        int        size   = STREAM_BUFFER_SIZE;
+        byte[]     inArr  = new byte[size];
+        byte[]     outArr = new byte[getOutputSize(c, size)];
+        ByteBuffer inBuf  = ByteBuffer.wrap(inArr);
+        ByteBuffer outBuf = ByteBuffer.wrap(outArr);
+        long       total  = 0;
+
+        try {
+            while(in.read(inBuf) >= 0) {
+                inBuf.flip();
+                c.update(inBuf, outBuf);
+                inBuf.clear();
+                total += drain(outBuf, out);
+            }
+            inBuf.flip();
+            c.doFinal(inBuf, outBuf);
+            return (total + drain(outBuf, out));
+        }
+        finally {
+            Arrays.fill(inArr, (byte)0);
+            Arrays.fill(outArr, (byte)0);
+        }
+    }
+
+    private static int drain(@NotNull ByteBuffer buffer, @NotNull WritableByteChannel out) throws IOException {
+        buffer.flip();
+        int n = buffer.remaining();
+        while(buffer.hasRemaining()) out.write(buffer);
+        buffer.clear();
+        return n;
+    }
+
+    /**
+     * Lets the Base64 encoder write its final padding on close without closing the caller's stream.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        public NonClosingOutputStream(@NotNull OutputStream out) {
+            super(out);
+        }
+
+        public @Override void close() throws IOException {
+            flush();
+        }
+
+        public @Override void write(byte @NotNull [] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+    }
+
     static {
         Security.addProvider(new BouncyCastleProvider());
     }
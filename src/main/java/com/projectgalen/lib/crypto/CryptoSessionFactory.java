@@ -0,0 +1,268 @@
+package com.projectgalen.lib.crypto;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: CryptoSessionFactory.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.text.Str;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.SecretKey;
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates {@link Crypto} sessions without blocking the caller. Key pairs are generated ahead of time on a small pool of daemon threads so a handshake only has
+ * to wait for the peer, and the whole handshake runs asynchronously, returning a {@link CompletableFuture}. Handshakes block while the delegate talks to the
+ * peer so they run on their own executor, by default a new virtual thread for each one, and a slow peer never holds up other handshakes or the key pair
+ * generation.
+ * <p>
+ * The key agreement is the other expensive step. Its output, the shared secret, is cached, for {@code crypto.session.cache.ttl_seconds}, under a
+ * fingerprint of both the local and the peer public keys. That only pays off when the same key pair is used for more than one handshake, for example with
+ * {@link #handshake(KeyPair, DiffieHellmanHandshakeDelegate)} and a long-lived key pair. Handshakes that use a fresh pre-generated key pair keep forward
+ * secrecy and never hit the cache. The cached secret is never used to encrypt directly: each session derives its own AES-GCM key from it and the session's
+ * IV (see {@link Crypto#deriveSessionKey(SecretKey, byte[])}) so sessions that share a secret still never share a GCM key or nonces.
+ * <p>
+ * Besides classic Diffie-Hellman the factory supports X25519, through the Bouncy Castle provider, which is much faster to generate and agree on. Both peers must
+ * use the same algorithm.
+ */
+@SuppressWarnings("unused")
+public final class CryptoSessionFactory implements Closeable {
+
+    private static final PGProperties props = PGProperties.getProperties("crypto_settings.properties", CryptoSessionFactory.class);
+
+    private final @NotNull Algorithm                         algorithm;
+    private final @NotNull ExecutorService                   executor;
+    private final @NotNull Executor                          handshakes;
+    private final          boolean                           ownsHandshakes;
+    private final @NotNull BlockingQueue<KeyPair>            keyPairs;
+    private final @NotNull AtomicInteger                     pending   = new AtomicInteger();
+    private final @NotNull ConcurrentHashMap<String, Cached> secrets   = new ConcurrentHashMap<>();
+    private final @NotNull ReentrantLock                     evictLock = new ReentrantLock();
+    private final          int                               poolSize;
+    private final          long                              ttlNanos;
+    private final          int                               maxCached;
+
+    public CryptoSessionFactory() {
+        this(Algorithm.valueOf(props.getProperty("crypto.session.algorithm")));
+    }
+
+    public CryptoSessionFactory(@NotNull Algorithm algorithm) {
+        this(algorithm, null);
+    }
+
+    /**
+     * @param algorithm  The key agreement algorithm.
+     * @param handshakes The executor that handshakes run on or {@code null} to run each handshake on a new virtual thread. An executor that is given is not
+     *                   shut down by {@link #close()}.
+     */
+    public CryptoSessionFactory(@NotNull Algorithm algorithm, @Nullable Executor handshakes) {
+        this.algorithm      = algorithm;
+        this.poolSize       = props.getInt("crypto.session.key_pair_pool_size");
+        this.ttlNanos       = TimeUnit.SECONDS.toNanos(props.getLong("crypto.session.cache.ttl_seconds"));
+        this.maxCached      = props.getInt("crypto.session.cache.max_size");
+        this.keyPairs       = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.ownsHandshakes = (handshakes == null);
+        this.handshakes     = ((handshakes == null) ? Executors.newVirtualThreadPerTaskExecutor() : handshakes);
+        this.executor       = Executors.newFixedThreadPool(props.getInt("crypto.session.threads"), r -> {
+            Thread t = new Thread(r, "crypto-session-%s".formatted(algorithm.name().toLowerCase(Locale.ROOT)));
+            t.setDaemon(true);
+            return t;
+        });
+        refill();
+    }
+
+    /**
+     * Clears the cache of derived secret keys.
+     */
+    public void clearCache() {
+        secrets.clear();
+    }
+
+    /**
+     * Shuts down the background threads. Handshakes that have already started are allowed to finish.
+     */
+    public @Override void close() {
+        executor.shutdown();
+        if(ownsHandshakes) ((ExecutorService)handshakes).shutdown();
+        keyPairs.clear();
+    }
+
+    public @NotNull Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getCacheSize() {
+        return secrets.size();
+    }
+
+    /**
+     * @return The number of pre-generated key pairs waiting to be used.
+     */
+    public int getKeyPairsAvailable() {
+        return keyPairs.size();
+    }
+
+    /**
+     * Performs a handshake, with a freshly generated key pair, on a background thread.
+     *
+     * @param delegate The delegate that exchanges public keys with the peer.
+     *
+     * @return A future that completes with the new session.
+     */
+    public @NotNull CompletableFuture<Crypto> handshake(@NotNull DiffieHellmanHandshakeDelegate delegate) {
+        return CompletableFuture.supplyAsync(() -> create(takeKeyPair(), delegate), handshakes);
+    }
+
+    /**
+     * Performs a handshake, with the given key pair, on a background thread. The key pair must have been created for this factory's algorithm.
+     *
+     * @param keyPair  The key pair.
+     * @param delegate The delegate that exchanges public keys with the peer.
+     *
+     * @return A future that completes with the new session.
+     */
+    public @NotNull CompletableFuture<Crypto> handshake(@NotNull KeyPair keyPair, @NotNull DiffieHellmanHandshakeDelegate delegate) {
+        return CompletableFuture.supplyAsync(() -> create(keyPair, delegate), handshakes);
+    }
+
+    /**
+     * Takes a pre-generated key pair, or generates one right now if none are ready, and schedules the generation of a replacement.
+     *
+     * @return The key pair.
+     */
+    public @NotNull KeyPair takeKeyPair() {
+        try {
+            KeyPair keyPair = keyPairs.poll();
+            return ((keyPair == null) ? Crypto.generateKeyPair(algorithm.getName()) : keyPair);
+        }
+        catch(GeneralSecurityException e) {
+            throw new CompletionException(e);
+        }
+        finally {
+            refill();
+        }
+    }
+
+    private @NotNull Crypto create(@NotNull KeyPair keyPair, @NotNull DiffieHellmanHandshakeDelegate delegate) {
+        try {
+            PublicKeyInfo info        = delegate.getPublicKeyInfo(Crypto.getBase64EncodedPublicKey(keyPair));
+            String        fingerprint = getFingerprint(keyPair, info);
+            long          now         = System.nanoTime();
+            Cached        cached      = secrets.get(fingerprint);
+
+            if((cached == null) || ((now - cached.created) > ttlNanos)) {
+                cached = new Cached(Crypto.createSharedSecret(keyPair.getPrivate(), info.publicKey()), now);
+                secrets.put(fingerprint, cached);
+                evictIfNeeded(now);
+            }
+            return new Crypto(keyPair, info, cached.secretKey);
+        }
+        catch(CompletionException e) {
+            throw e;
+        }
+        catch(Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void evictIfNeeded(long now) {
+        if((secrets.size() <= maxCached) || !evictLock.tryLock()) return;
+        try {
+            secrets.values().removeIf(c -> ((now - c.created) > ttlNanos));
+            int excess = (secrets.size() - maxCached);
+            if(excess > 0) {
+                List<Map.Entry<String, Cached>> entries = new ArrayList<>(secrets.entrySet());
+                entries.sort(Map.Entry.comparingByValue());
+                for(int i = 0; i < excess; ++i) secrets.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        }
+        finally {
+            evictLock.unlock();
+        }
+    }
+
+    private void refill() {
+        if(executor.isShutdown()) return;
+        while((keyPairs.size() + pending.get()) < poolSize) {
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        keyPairs.offer(Crypto.generateKeyPair(algorithm.getName()));
+                    }
+                    catch(GeneralSecurityException ignored) {
+                        // The error will be reported by takeKeyPair() when it tries to generate a key pair itself.
+                    }
+                    finally {
+                        pending.decrementAndGet();
+                    }
+                });
+            }
+            catch(RejectedExecutionException e) {
+                pending.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private static @NotNull String getFingerprint(@NotNull KeyPair keyPair, @NotNull PublicKeyInfo info) throws GeneralSecurityException {
+        byte[] local = keyPair.getPublic().getEncoded();
+        byte[] peer  = info.publicKey().getBytes(StandardCharsets.US_ASCII);
+        byte[] both  = new byte[local.length + peer.length];
+        System.arraycopy(local, 0, both, 0, local.length);
+        System.arraycopy(peer, 0, both, local.length, peer.length);
+        return Str.base64Encode(Crypto.createSHA256Digest(both));
+    }
+
+    public enum Algorithm {
+        /**
+         * Classic finite-field Diffie-Hellman with the key length from {@code crypto.diffie_hellman.key_length}.
+         */
+        DH("DH"),
+        /**
+         * Elliptic-curve Diffie-Hellman over Curve25519.
+         */
+        X25519("X25519");
+
+        private final String name;
+
+        Algorithm(@NotNull String name) {
+            this.name = name;
+        }
+
+        public @NotNull String getName() {
+            return name;
+        }
+    }
+
+    private record Cached(@NotNull SecretKey secretKey, long created) implements Comparable<Cached> {
+        public @Override int compareTo(@NotNull Cached o) {
+            return Long.compare(created, o.created);
+        }
+    }
+}
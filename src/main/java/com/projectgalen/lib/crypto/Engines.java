@@ -0,0 +1,219 @@
+package com.projectgalen.lib.crypto;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: Engines.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.functions.SupplierEx;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Pools of JCA engines ({@link Cipher}, {@link MessageDigest} and {@link KeyFactory}) keyed by algorithm and provider so that hot paths don't pay for a
+ * provider lookup on every call. Engines are NOT thread-safe so each one is borrowed by one thread at a time and then released back to its
+ * pool:
+ * <pre>
+ *     Cipher c = pool.borrow();
+ *     try { ... } finally { pool.release(c); }
+ * </pre>
+ * The pools are lock-free queues rather than thread-locals so they work just as well with virtual threads, which would otherwise each end up with their own
+ * engine. A pool never holds more than {@code crypto.engines.max_idle} idle engines.
+ * <p>
+ * A {@link Cipher} cannot be cleared, so an idle cipher keeps the key schedule of the last key it was initialized with until it is borrowed and initialized
+ * again. Key material can therefore stay reachable from a pool after the code that used it is done with it. Call {@link Pool#clear()} to drop the idle engines
+ * when that matters, for example after closing a long-lived session. Key agreements are not pooled at all because they would hold on to a private key and most
+ * of their cost is in {@code init(...)} anyway.
+ */
+@SuppressWarnings("unused")
+public final class Engines {
+
+    private static final PGProperties                       props    = PGProperties.getProperties("crypto_settings.properties", Engines.class);
+    private static final int                                MAX_IDLE = props.getInt("crypto.engines.max_idle");
+    private static final SecureRandom                       RANDOM   = new SecureRandom();
+    private static final ConcurrentHashMap<String, Pool<?>> POOLS    = new ConcurrentHashMap<>();
+
+    private Engines() { }
+
+    public static @NotNull Pool<Cipher> cipherPool(@NotNull String transformation) {
+        return cipherPool(transformation, null);
+    }
+
+    /**
+     * Returns the pool of ciphers for the given transformation and provider. Borrowed ciphers must always be initialized with one of the {@code Cipher.init(...)}
+     * methods before use. Idle ciphers keep their last key schedule, see {@link Pool#clear()}.
+     *
+     * @param transformation The transformation.
+     * @param provider       The name of the provider or {@code null} for the default provider.
+     *
+     * @return The pool.
+     */
+    public static @NotNull Pool<Cipher> cipherPool(@NotNull String transformation, @Nullable String provider) {
+        return getPool("Cipher", transformation, provider, () -> ((provider == null) ? Cipher.getInstance(transformation) : Cipher.getInstance(transformation, provider)), null);
+    }
+
+    /**
+     * @return A {@link SecureRandom} shared by every thread. {@link SecureRandom} is thread-safe so there is no need to create a new one for each use.
+     */
+    public static @NotNull SecureRandom getSecureRandom() {
+        return RANDOM;
+    }
+
+    /**
+     * @return A snapshot of the statistics for every pool that has been created.
+     */
+    public static @NotNull List<Stats> getStats() {
+        return POOLS.values().stream().map(Pool::getStats).toList();
+    }
+
+    public static @NotNull Pool<KeyFactory> keyFactoryPool(@NotNull String algorithm, @Nullable String provider) {
+        return getPool("KeyFactory", algorithm, provider, () -> ((provider == null) ? KeyFactory.getInstance(algorithm) : KeyFactory.getInstance(algorithm, provider)), null);
+    }
+
+    public static @NotNull Pool<MessageDigest> messageDigestPool(@NotNull String algorithm) {
+        return messageDigestPool(algorithm, null);
+    }
+
+    /**
+     * Returns the pool of message digests for the given algorithm and provider. Digests are reset when they are released.
+     *
+     * @param algorithm The algorithm.
+     * @param provider  The name of the provider or {@code null} for the default provider.
+     *
+     * @return The pool.
+     */
+    public static @NotNull Pool<MessageDigest> messageDigestPool(@NotNull String algorithm, @Nullable String provider) {
+        return getPool("MessageDigest", algorithm, provider, () -> ((provider == null) ? MessageDigest.getInstance(algorithm) : MessageDigest.getInstance(algorithm, provider)), MessageDigest::reset);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> @NotNull Pool<T> getPool(@NotNull String type, @NotNull String algorithm, @Nullable String provider, @NotNull SupplierEx<T, GeneralSecurityException> factory, @Nullable Consumer<T> reset) {
+        return (Pool<T>)POOLS.computeIfAbsent("%s:%s:%s".formatted(type, algorithm, ((provider == null) ? "" : provider)), name -> new Pool<>(name, factory, reset));
+    }
+
+    /**
+     * A pool of engines of one type, algorithm and provider. Callers on a hot path should look the pool up once and keep it in a static field.
+     *
+     * @param <T> The type of engine.
+     */
+    public static final class Pool<T> {
+        private final @NotNull  String                                  name;
+        private final @NotNull  SupplierEx<T, GeneralSecurityException> factory;
+        private final @Nullable Consumer<T>                             reset;
+        private final           ConcurrentLinkedQueue<T>                idle      = new ConcurrentLinkedQueue<>();
+        private final           AtomicInteger                           idleCount = new AtomicInteger();
+        private final           LongAdder                               created   = new LongAdder();
+        private final           LongAdder                               borrowed  = new LongAdder();
+        private final           LongAdder                               released  = new LongAdder();
+        private final           LongAdder                               discarded = new LongAdder();
+
+        private Pool(@NotNull String name, @NotNull SupplierEx<T, GeneralSecurityException> factory, @Nullable Consumer<T> reset) {
+            this.name    = name;
+            this.factory = factory;
+            this.reset   = reset;
+        }
+
+        /**
+         * Takes an idle engine from the pool or creates a new one if there are none.
+         *
+         * @return The engine.
+         *
+         * @throws GeneralSecurityException If a new engine could not be created.
+         */
+        public @NotNull T borrow() throws GeneralSecurityException {
+            borrowed.increment();
+            T engine = idle.poll();
+            if(engine != null) {
+                idleCount.decrementAndGet();
+                return engine;
+            }
+            created.increment();
+            return factory.get();
+        }
+
+        /**
+         * Drops every idle engine so that nothing they still refer to, such as the last key a {@link Cipher} was initialized with, stays reachable from the pool.
+         * Engines that are borrowed at the time are not affected.
+         */
+        public void clear() {
+            while(idle.poll() != null) {
+                idleCount.decrementAndGet();
+                discarded.increment();
+            }
+        }
+
+        public @NotNull String getName() {
+            return name;
+        }
+
+        public @NotNull Stats getStats() {
+            return new Stats(name, created.sum(), borrowed.sum(), released.sum(), discarded.sum(), idleCount.get());
+        }
+
+        /**
+         * Returns an engine to the pool. If the pool is already holding the maximum number of idle engines then the engine is simply dropped.
+         *
+         * @param engine The engine. May be {@code null} in which case nothing happens.
+         */
+        public void release(@Nullable T engine) {
+            if(engine == null) return;
+            if(reset != null) reset.accept(engine);
+            if(idleCount.incrementAndGet() <= MAX_IDLE) {
+                idle.offer(engine);
+                released.increment();
+            }
+            else {
+                idleCount.decrementAndGet();
+                discarded.increment();
+            }
+        }
+
+        public @Override @NotNull String toString() {
+            return getStats().toString();
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of one pool.
+     *
+     * @param name      The name of the pool: "type:algorithm:provider".
+     * @param created   The number of engines created because the pool was empty.
+     * @param borrowed  The number of times an engine was borrowed.
+     * @param released  The number of engines returned to the pool.
+     * @param discarded The number of engines dropped because the pool was full.
+     * @param idle      The number of idle engines currently in the pool.
+     */
+    public record Stats(@NotNull String name, long created, long borrowed, long released, long discarded, int idle) {
+        /**
+         * @return The fraction of borrows that were satisfied by an idle engine.
+         */
+        public double hitRate() {
+            return ((borrowed == 0) ? 0.0 : ((borrowed - created) / (double)borrowed));
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.projectgalen.lib.crypto;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: GcmCipher.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.text.Str;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authenticated encryption with AES-GCM. Every message gets a fresh 96-bit nonce made of a 32-bit fixed field, given when the instance is created, followed
+ * by a 64-bit counter. Taking the next nonce is a single atomic increment so threads never contend on a lock, and a nonce is never reused with the same
+ * instance. Because GCM authenticates the cipher text there is no need for a separate HMAC.
+ * <p>
+ * The counter only keeps nonces unique within one instance. Every instance that encrypts with the same key MUST therefore have a different fixed field, for
+ * example one for each direction of a connection (see {@link Crypto#getGcm()}, which uses the peers' roles). {@link #GcmCipher(SecretKey)} picks the fixed
+ * field at random, which is only safe when the key is used by a single instance, or by very few.
+ * <p>
+ * There are two formats:
+ * <ul>
+ *     <li>Messages: {@code nonce || cipher text || tag}. See {@link #encrypt(byte[], byte[])}.</li>
+ *     <li>Framed: a header followed by fixed-size chunks, each one encrypted separately, so that large inputs can be encrypted and decrypted in parallel on
+ *     the common {@link ForkJoinPool}. See {@link #encryptFramed(byte[], int)}.</li>
+ * </ul>
+ * Instances are thread-safe.
+ */
+@SuppressWarnings("unused")
+public final class GcmCipher {
+
+    private static final PGResourceBundle msgs  = new PGResourceBundle("com.projectgalen.lib.crypto.crypto_messages");
+    private static final PGProperties     props = PGProperties.getProperties("crypto_settings.properties", GcmCipher.class);
+
+    public static final  int                  NONCE_LENGTH   = 12;
+    private static final String               TRANSFORMATION = props.getProperty("crypto.gcm.transformation");
+    private static final int                  TAG_BITS       = props.getInt("crypto.gcm.tag_length");
+    private static final int                  TAG_LENGTH     = (TAG_BITS / 8);
+    private static final int                  CHUNK_SIZE     = props.getInt("crypto.gcm.chunk_size");
+    private static final byte                 VERSION        = 1;
+    private static final int                  HEADER_LENGTH  = 25; // version(1) + chunk size(4) + plain text length(8) + base nonce(12)
+    private static final Engines.Pool<Cipher> CIPHERS        = Engines.cipherPool(TRANSFORMATION);
+
+    private final SecretKey  key;
+    private final int        prefix;
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Creates an instance with a random fixed field. Only use this when no other instance will encrypt with the same key.
+     *
+     * @param key The key.
+     */
+    public GcmCipher(@NotNull SecretKey key) {
+        this(key, Engines.getSecureRandom().nextInt());
+    }
+
+    /**
+     * Creates an instance with the given fixed field.
+     *
+     * @param key        The key.
+     * @param fixedField The first 32 bits of every nonce. It must be different from the fixed field of every other instance that encrypts with the same key.
+     */
+    public GcmCipher(@NotNull SecretKey key, int fixedField) {
+        this.key    = key;
+        this.prefix = fixedField;
+    }
+
+    public byte @NotNull [] decrypt(byte @NotNull [] message) throws GeneralSecurityException {
+        return decrypt(message, null);
+    }
+
+    /**
+     * Decrypts and verifies a message created by {@link #encrypt(byte[], byte[])}. The message can come from any instance that has the same key.
+     *
+     * @param message The message.
+     * @param aad     The same additional authenticated data that was given when the message was encrypted, if any.
+     *
+     * @return The plain text.
+     *
+     * @throws AEADBadTagException      If the message has been tampered with or the additional authenticated data does not match.
+     * @throws GeneralSecurityException If any other error occurs.
+     */
+    public byte @NotNull [] decrypt(byte @NotNull [] message, byte @Nullable [] aad) throws GeneralSecurityException {
+        if(message.length < (NONCE_LENGTH + TAG_LENGTH)) throw new AEADBadTagException(msgs.getString("msg.err.gcm.malformed"));
+        Cipher c = CIPHERS.borrow();
+        try {
+            c.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, message, 0, NONCE_LENGTH));
+            if(aad != null) c.updateAAD(aad);
+            return c.doFinal(message, NONCE_LENGTH, (message.length - NONCE_LENGTH));
+        }
+        finally { CIPHERS.release(c); }
+    }
+
+    public @NotNull String decryptBase64(@NotNull String base64Message) throws GeneralSecurityException {
+        return new String(decrypt(Str.base64Decode(base64Message)), StandardCharsets.UTF_8);
+    }
+
+    public byte @NotNull [] decryptFramed(byte @NotNull [] framed) throws GeneralSecurityException {
+        if((framed.length < HEADER_LENGTH) || (framed[0] != VERSION)) throw new AEADBadTagException(msgs.getString("msg.err.gcm.malformed"));
+
+        int  chunkSize = getInt(framed, 1);
+        long length    = getLong(framed, 5);
+        if((chunkSize <= 0) || (length < 0) || (length > (Integer.MAX_VALUE - 16))) throw new AEADBadTagException(msgs.getString("msg.err.gcm.malformed"));
+
+        int count = getChunkCount(length, chunkSize);
+        if(framed.length != (HEADER_LENGTH + length + ((long)count * TAG_LENGTH))) throw new AEADBadTagException(msgs.getString("msg.err.gcm.malformed"));
+
+        int    pfx   = getInt(framed, 13);
+        long   base  = getLong(framed, 17);
+        byte[] plain = new byte[(int)length];
+
+        forEachChunk(count, (c, i) -> {
+            int off = (i * chunkSize);
+            int len = (int)Math.min(chunkSize, (length - off));
+            c.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, getNonce(pfx, (base + i))));
+            c.updateAAD(framed, 0, HEADER_LENGTH);
+            c.updateAAD(getChunkAAD(i, count));
+            c.doFinal(framed, (HEADER_LENGTH + off + (i * TAG_LENGTH)), (len + TAG_LENGTH), plain, off);
+        });
+        return plain;
+    }
+
+    public byte @NotNull [] encrypt(byte @NotNull [] plainText) throws GeneralSecurityException {
+        return encrypt(plainText, null);
+    }
+
+    /**
+     * Encrypts a message with the next nonce. The result is {@code nonce || cipher text || tag}.
+     *
+     * @param plainText The plain text.
+     * @param aad       Additional data, such as a message header, that is authenticated but not encrypted. May be {@code null}.
+     *
+     * @return The encrypted message.
+     *
+     * @throws GeneralSecurityException If an error occurs.
+     */
+    public byte @NotNull [] encrypt(byte @NotNull [] plainText, byte @Nullable [] aad) throws GeneralSecurityException {
+        byte[] message = new byte[NONCE_LENGTH + plainText.length + TAG_LENGTH];
+        putNonce(message, 0, prefix, reserveNonces(1));
+        Cipher c = CIPHERS.borrow();
+        try {
+            c.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, message, 0, NONCE_LENGTH));
+            if(aad != null) c.updateAAD(aad);
+            c.doFinal(plainText, 0, plainText.length, message, NONCE_LENGTH);
+            return message;
+        }
+        finally { CIPHERS.release(c); }
+    }
+
+    public @NotNull String encryptBase64(@NotNull String plainText) throws GeneralSecurityException {
+        return Str.base64Encode(encrypt(plainText.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public byte @NotNull [] encryptFramed(byte @NotNull [] plainText) throws GeneralSecurityException {
+        return encryptFramed(plainText, CHUNK_SIZE);
+    }
+
+    /**
+     * Encrypts a large input in the framed format. The input is split into chunks of {@code chunkSize} bytes and each chunk is encrypted with its own nonce, in
+     * parallel when there is more than one. The chunk's index and whether it is the last chunk are authenticated along with the header so chunks cannot be
+     * reordered, dropped or truncated without {@link #decryptFramed(byte[])} failing.
+     * <p>
+     * Format: {@code version(1) || chunk size(4) || plain text length(8) || base nonce(12) || (cipher text || tag) for each chunk}
+     *
+     * @param plainText The plain text.
+     * @param chunkSize The size of each chunk.
+     *
+     * @return The framed cipher text.
+     *
+     * @throws GeneralSecurityException If an error occurs.
+     */
+    public byte @NotNull [] encryptFramed(byte @NotNull [] plainText, int chunkSize) throws GeneralSecurityException {
+        if(chunkSize <= 0) throw new IllegalArgumentException(msgs.format("msg.err.gcm.chunk_size", chunkSize));
+
+        int  count  = getChunkCount(plainText.length, chunkSize);
+        long length = (HEADER_LENGTH + (long)plainText.length + ((long)count * TAG_LENGTH));
+        if(length > (Integer.MAX_VALUE - 16)) throw new IllegalArgumentException(msgs.getString("msg.err.gcm.too_large"));
+
+        byte[] framed = new byte[(int)length];
+        long   base   = reserveNonces(count);
+
+        framed[0] = VERSION;
+        putInt(framed, 1, chunkSize);
+        putLong(framed, 5, plainText.length);
+        putNonce(framed, 13, prefix, base);
+
+        forEachChunk(count, (c, i) -> {
+            int off = (i * chunkSize);
+            int len = Math.min(chunkSize, (plainText.length - off));
+            c.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, getNonce(prefix, (base + i))));
+            c.updateAAD(framed, 0, HEADER_LENGTH);
+            c.updateAAD(getChunkAAD(i, count));
+            c.doFinal(plainText, off, len, framed, (HEADER_LENGTH + off + (i * TAG_LENGTH)));
+        });
+        return framed;
+    }
+
+    /**
+     * Reserves a block of consecutive nonce counters.
+     *
+     * @param count The number of nonces.
+     *
+     * @return The first counter in the block.
+     */
+    private long reserveNonces(int count) {
+        long first = counter.getAndAdd(count);
+        if((first < 0) || ((first + count) < 0)) throw new IllegalStateException(msgs.getString("msg.err.gcm.nonces_exhausted"));
+        return first;
+    }
+
+    private static void forEachChunk(int count, @NotNull ChunkOp op) throws GeneralSecurityException {
+        ChunkTask task = new ChunkTask(op, 0, count);
+        try {
+            if(count == 1) task.compute();
+            else ForkJoinPool.commonPool().invoke(task);
+        }
+        catch(RuntimeException e) {
+            // ForkJoinPool may rethrow a copy of the exception from another thread so look for the original cause.
+            for(Throwable t = e; t != null; t = t.getCause()) if(t instanceof GeneralSecurityException gse) throw gse;
+            throw e;
+        }
+    }
+
+    private static byte @NotNull [] getChunkAAD(int index, int count) {
+        byte[] aad = new byte[5];
+        putInt(aad, 0, index);
+        aad[4] = (byte)((index == (count - 1)) ? 1 : 0);
+        return aad;
+    }
+
+    private static int getChunkCount(long length, int chunkSize) {
+        return (int)Math.max(1, ((length + chunkSize - 1) / chunkSize));
+    }
+
+    private static int getInt(byte @NotNull [] b, int off) {
+        return (((b[off] & 0xff) << 24) | ((b[off + 1] & 0xff) << 16) | ((b[off + 2] & 0xff) << 8) | (b[off + 3] & 0xff));
+    }
+
+    private static long getLong(byte @NotNull [] b, int off) {
+        return ((((long)getInt(b, off)) << 32) | (getInt(b, (off + 4)) & 0xffffffffL));
+    }
+
+    private static byte @NotNull [] getNonce(int prefix, long count) {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        putNonce(nonce, 0, prefix, count);
+        return nonce;
+    }
+
+    private static void putInt(byte @NotNull [] b, int off, int v) {
+        b[off]     = (byte)(v >>> 24);
+        b[off + 1] = (byte)(v >>> 16);
+        b[off + 2] = (byte)(v >>> 8);
+        b[off + 3] = (byte)v;
+    }
+
+    private static void putLong(byte @NotNull [] b, int off, long v) {
+        putInt(b, off, (int)(v >>> 32));
+        putInt(b, (off + 4), (int)v);
+    }
+
+    private static void putNonce(byte @NotNull [] b, int off, int prefix, long count) {
+        putInt(b, off, prefix);
+        putLong(b, (off + 4), count);
+    }
+
+    @FunctionalInterface
+    private interface ChunkOp {
+        void apply(@NotNull Cipher cipher, int index) throws GeneralSecurityException;
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final ChunkOp op;
+        private final int     lo;
+        private final int     hi;
+
+        private ChunkTask(@NotNull ChunkOp op, int lo, int hi) {
+            this.op = op;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected @Override void compute() {
+            if((hi - lo) > 1) {
+                int mid = ((lo + hi) >>> 1);
+                invokeAll(new ChunkTask(op, lo, mid), new ChunkTask(op, mid, hi));
+                return;
+            }
+            try {
+                Cipher c = CIPHERS.borrow();
+                try { op.apply(c, lo); }
+                finally { CIPHERS.release(c); }
+            }
+            catch(GeneralSecurityException e) {
+                throw new ChunkException(e);
+            }
+        }
+    }
+
+    private static final class ChunkException extends RuntimeException {
+        private ChunkException(@NotNull GeneralSecurityException cause) {
+            super(cause);
+        }
+    }
+}
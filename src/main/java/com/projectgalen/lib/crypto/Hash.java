@@ -17,34 +17,348 @@ package com.projectgalen.lib.crypto;
 // NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ================================================================================================================================
 
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.text.Str;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * An incremental message digest. Create one with {@link #sha3_256()}, {@link #sha256()} or {@link #of(String)}, feed it with the {@code update(...)} methods
+ * and then get the result with {@link #digest()}, {@link #hex()} or {@link #base64()}:
+ * <pre>
+ *     try(Hash hash = Hash.sha3_256()) {
+ *         String fingerprint = hash.update(header).update(body).hex();
+ *     }
+ * </pre>
+ * The underlying {@link MessageDigest} is borrowed from a pool (see {@link Engines}) and goes back to the pool as soon as the result is computed, or when the
+ * {@code Hash} is closed, whichever comes first. A {@code Hash} is not thread-safe.
+ * <p>
+ * Text is encoded as UTF-8 through a small buffer that is reused for every update and wiped afterwards, so hashing a password or a large
+ * {@link CharSequence} never makes a full copy of it.
+ * <p>
+ * Files can be hashed with {@link #update(Path)}, which streams the file through a large direct buffer, or with {@link #treeHash(String, Path)}, which hashes
+ * fixed-size chunks of the file in parallel and then hashes the chunk hashes. The two give different results.
+ */
 @SuppressWarnings("unused")
-public final class Hash {
+public final class Hash implements AutoCloseable {
 
-    private Hash() { }
+    private static final PGProperties                props            = PGProperties.getProperties("crypto_settings.properties", Hash.class);
+    private static final PGResourceBundle            msgs             = new PGResourceBundle("com.projectgalen.lib.crypto.crypto_messages");
+    private static final int                         ENCODER_BUFFER   = props.getInt("crypto.hash.encoder_buffer_size");
+    private static final int                         FILE_BUFFER      = props.getInt("crypto.hash.file_buffer_size");
+    private static final int                         TREE_CHUNK_SIZE  = props.getInt("crypto.hash.tree.chunk_size");
+    private static final Engines.Pool<MessageDigest> SHA3_256_DIGESTS = Engines.messageDigestPool("SHA3-256");
+    private static final Engines.Pool<MessageDigest> SHA256_DIGESTS   = Engines.messageDigestPool("SHA-256");
+
+    private final @NotNull Engines.Pool<MessageDigest> pool;
+    private                MessageDigest               digest;
+    private                byte[]                      result;
+    private                CharsetEncoder              encoder;
+    private                ByteBuffer                  encoderBuffer;
+
+    private Hash(@NotNull Engines.Pool<MessageDigest> pool) {
+        this.pool = pool;
+        try {
+            this.digest = pool.borrow();
+        }
+        catch(GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return The hash encoded as Base64.
+     */
+    public @NotNull String base64() {
+        return Str.base64Encode(digest());
+    }
+
+    /**
+     * Releases the underlying {@link MessageDigest} back to its pool without computing the hash, if it has not been computed already.
+     */
+    public @Override void close() {
+        release();
+    }
+
+    /**
+     * Computes the hash. Once the hash has been computed no more data can be added and this method just returns the same value again.
+     *
+     * @return The hash.
+     */
+    public byte @NotNull [] digest() {
+        if(result == null) {
+            result = getDigest().digest();
+            release();
+        }
+        return result.clone();
+    }
+
+    /**
+     * @return The hash encoded as lowercase hexadecimal.
+     */
+    public @NotNull String hex() {
+        return HexFormat.of().formatHex(digest());
+    }
+
+    public @NotNull Hash update(byte @NotNull [] data) {
+        return update(data, 0, data.length);
+    }
+
+    public @NotNull Hash update(byte @NotNull [] data, int offset, int length) {
+        getDigest().update(data, offset, length);
+        return this;
+    }
+
+    /**
+     * Adds the remaining bytes of the buffer. On return the position of the buffer is at its limit. Direct buffers are read without being copied to the heap.
+     *
+     * @param data The data.
+     *
+     * @return This {@code Hash}.
+     */
+    public @NotNull Hash update(@NotNull ByteBuffer data) {
+        getDigest().update(data);
+        return this;
+    }
+
+    /**
+     * Adds the UTF-8 encoding of the characters. Each call must contain whole characters; a surrogate pair cannot be split across two calls.
+     *
+     * @param chars The characters.
+     *
+     * @return This {@code Hash}.
+     */
+    public @NotNull Hash update(char @NotNull [] chars) {
+        return update(CharBuffer.wrap(chars));
+    }
+
+    /**
+     * Adds the UTF-8 encoding of the characters. Each call must contain whole characters; a surrogate pair cannot be split across two calls.
+     *
+     * @param text The characters.
+     *
+     * @return This {@code Hash}.
+     */
+    public @NotNull Hash update(@NotNull CharSequence text) {
+        MessageDigest md  = getDigest();
+        CharBuffer    in  = ((text instanceof CharBuffer cb) ? cb.duplicate() : CharBuffer.wrap(text));
+        ByteBuffer    out = getEncoderBuffer();
+        try {
+            CoderResult cr;
+            encoder.reset();
+            do {
+                cr = encoder.encode(in, out, true);
+                if(cr.isError()) cr.throwException();
+                md.update(out.flip());
+                out.clear();
+            }
+            while(cr.isOverflow());
+            while(encoder.flush(out).isOverflow()) {
+                md.update(out.flip());
+                out.clear();
+            }
+            md.update(out.flip());
+            return this;
+        }
+        catch(CharacterCodingException e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            wipe(out);
+        }
+    }
+
+    /**
+     * Adds the contents of a file, read through a direct buffer of {@code crypto.hash.file_buffer_size} bytes so that the file is never loaded into memory.
+     *
+     * @param file The file.
+     *
+     * @return This {@code Hash}.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public @NotNull Hash update(@NotNull Path file) throws IOException {
+        MessageDigest md = getDigest();
+        try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(FILE_BUFFER);
+            while(ch.read(buffer) >= 0) {
+                md.update(buffer.flip());
+                buffer.clear();
+            }
+            md.update(buffer.flip());
+        }
+        return this;
+    }
+
+    private @NotNull MessageDigest getDigest() {
+        if(digest == null) throw new IllegalStateException(msgs.getString("msg.err.hash.finished"));
+        return digest;
+    }
+
+    private @NotNull ByteBuffer getEncoderBuffer() {
+        if(encoderBuffer == null) {
+            encoder       = StandardCharsets.UTF_8.newEncoder();
+            encoderBuffer = ByteBuffer.allocate(ENCODER_BUFFER);
+        }
+        return encoderBuffer.clear();
+    }
+
+    private void release() {
+        if(digest != null) {
+            pool.release(digest);
+            digest = null;
+        }
+    }
+
+    /**
+     * Hashes a file with the given algorithm.
+     *
+     * @param algorithm The message digest algorithm, for example "SHA3-256".
+     * @param file      The file.
+     *
+     * @return The hash.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public static byte @NotNull [] hashFile(@NotNull String algorithm, @NotNull Path file) throws IOException {
+        try(Hash hash = of(algorithm)) {
+            return hash.update(file).digest();
+        }
+    }
+
+    public static byte @NotNull [] hashFile(@NotNull Path file) throws IOException {
+        return hashFile("SHA3-256", file);
+    }
+
+    /**
+     * @param algorithm The message digest algorithm, for example "SHA3-256".
+     *
+     * @return A new {@code Hash} for the given algorithm.
+     */
+    public static @NotNull Hash of(@NotNull String algorithm) {
+        return new Hash(Engines.messageDigestPool(algorithm));
+    }
+
+    public static @NotNull Hash sha256() {
+        return new Hash(SHA256_DIGESTS);
+    }
+
+    public static @NotNull Hash sha3_256() {
+        return new Hash(SHA3_256_DIGESTS);
+    }
 
     public static @NotNull String sha3_256Hash(@NotNull String text) {
-        return sha3_256Hash(text.toCharArray());
+        try(Hash hash = sha3_256()) {
+            return hash.update(text).base64();
+        }
     }
 
     public static @NotNull String sha3_256Hash(char @NotNull [] chars) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA3-256");
-            ByteBuffer    bytes  = StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(chars));
-            digest.update(bytes);
-            String str = Base64.getEncoder().encodeToString(digest.digest());
-            for(int i = 0; i < bytes.limit(); i++) bytes.put(i, (byte)0);
-            return str;
-        }
-        catch(NoSuchAlgorithmException | CharacterCodingException e) { throw new RuntimeException(e); }
+        try(Hash hash = sha3_256()) {
+            return hash.update(chars).base64();
+        }
+    }
+
+    /**
+     * Computes a two-level tree hash of a file using every core. The file is split into chunks of {@code crypto.hash.tree.chunk_size} bytes, each chunk is
+     * memory-mapped and hashed on the common {@link ForkJoinPool}, and the result is the hash of all the chunk hashes:
+     * <pre>
+     *     leaf[i] = H(0x00 || chunk[i])
+     *     root    = H(0x01 || leaf[0] || leaf[1] || ... || leaf[n - 1])
+     * </pre>
+     * The prefixes keep a leaf from ever being mistaken for the root. The result depends on the chunk size and is NOT the same as {@link #hashFile(String, Path)}.
+     *
+     * @param algorithm The message digest algorithm, for example "SHA3-256".
+     * @param file      The file.
+     *
+     * @return The root hash.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public static byte @NotNull [] treeHash(@NotNull String algorithm, @NotNull Path file) throws IOException {
+        return treeHash(algorithm, file, TREE_CHUNK_SIZE);
+    }
+
+    public static byte @NotNull [] treeHash(@NotNull String algorithm, @NotNull Path file, int chunkSize) throws IOException {
+        if(chunkSize <= 0) throw new IllegalArgumentException(msgs.format("msg.err.hash.chunk_size", chunkSize));
+        Engines.Pool<MessageDigest> pool = Engines.messageDigestPool(algorithm);
+
+        try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long     size   = ch.size();
+            byte[][] leaves = new byte[Math.toIntExact((size + chunkSize - 1) / chunkSize)][];
+            int      count  = leaves.length;
+
+            if(count == 1) new LeafTask(pool, ch, size, chunkSize, leaves, 0, 1).compute();
+            else if(count > 1) ForkJoinPool.commonPool().invoke(new LeafTask(pool, ch, size, chunkSize, leaves, 0, count));
+
+            try(Hash root = new Hash(pool)) {
+                root.update(new byte[] { 1 });
+                for(byte[] leaf : leaves) root.update(leaf);
+                return root.digest();
+            }
+        }
+        catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void wipe(@NotNull ByteBuffer buffer) {
+        Arrays.fill(buffer.array(), (byte)0);
+        buffer.clear();
+    }
+
+    private static final class LeafTask extends RecursiveAction {
+        private final Engines.Pool<MessageDigest> pool;
+        private final FileChannel                 channel;
+        private final long                        size;
+        private final int                         chunkSize;
+        private final byte[][]                    leaves;
+        private final int                         lo;
+        private final int                         hi;
+
+        private LeafTask(@NotNull Engines.Pool<MessageDigest> pool, @NotNull FileChannel channel, long size, int chunkSize, byte @NotNull [] @NotNull [] leaves, int lo, int hi) {
+            this.pool      = pool;
+            this.channel   = channel;
+            this.size      = size;
+            this.chunkSize = chunkSize;
+            this.leaves    = leaves;
+            this.lo        = lo;
+            this.hi        = hi;
+        }
+
+        protected @Override void compute() {
+            if((hi - lo) > 1) {
+                int mid = ((lo + hi) >>> 1);
+                invokeAll(new LeafTask(pool, channel, size, chunkSize, leaves, lo, mid), new LeafTask(pool, channel, size, chunkSize, leaves, mid, hi));
+                return;
+            }
+            long position = ((long)lo * chunkSize);
+            try(Hash leaf = new Hash(pool)) {
+                leaf.update(new byte[] { 0 });
+                leaf.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, (size - position))));
+                leaves[lo] = leaf.digest();
+            }
+            catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
@@ -0,0 +1,151 @@
+package com.projectgalen.lib.json;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: GeometryModule.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializers and deserializers for {@link JsonPoint}, {@link JsonDimension} and {@link JsonRect} that write fixed-length arrays of numbers
+ * instead of objects with named fields and never touch reflection:
+ * <pre>
+ *     JsonPoint     [x, y]
+ *     JsonDimension [width, height]
+ *     JsonRect      [x, y, width, height]
+ * </pre>
+ * The deserializers also accept the object form, so data written before this module was registered can still be read. Registered by
+ * {@link JSON.Options#CompactGeometry}.
+ */
+@SuppressWarnings("unused")
+public final class GeometryModule extends SimpleModule {
+
+    public GeometryModule() {
+        super("PGGeometryModule");
+        addSerializer(JsonPoint.class, new PointSerializer());
+        addSerializer(JsonDimension.class, new DimensionSerializer());
+        addSerializer(JsonRect.class, new RectSerializer());
+        addDeserializer(JsonPoint.class, new PointDeserializer());
+        addDeserializer(JsonDimension.class, new DimensionDeserializer());
+        addDeserializer(JsonRect.class, new RectDeserializer());
+    }
+
+    /**
+     * Reads either {@code [a, b, ...]} or {@code { "name": a, ... }} into {@code values}, in the order given by {@code names}. Missing fields are left as zero and
+     * unknown fields are skipped.
+     */
+    private static int @NotNull [] readInts(@NotNull JsonParser p, @NotNull DeserializationContext ctxt, @NotNull Class<?> type, String @NotNull ... names) throws IOException {
+        int[]     values = new int[names.length];
+        JsonToken t      = p.currentToken();
+
+        if(t == JsonToken.START_ARRAY) {
+            for(int i = 0; i < values.length; i++) {
+                if(p.nextToken() != JsonToken.VALUE_NUMBER_INT) return (int[])ctxt.handleUnexpectedToken(type, p);
+                values[i] = p.getIntValue();
+            }
+            if(p.nextToken() != JsonToken.END_ARRAY) return (int[])ctxt.handleUnexpectedToken(type, p);
+        }
+        else if((t == JsonToken.START_OBJECT) || (t == JsonToken.FIELD_NAME)) {
+            for(String name = ((t == JsonToken.START_OBJECT) ? p.nextFieldName() : p.currentName()); name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                int i = indexOf(names, name);
+                if(i < 0) p.skipChildren();
+                else values[i] = p.getValueAsInt();
+            }
+        }
+        else {
+            return (int[])ctxt.handleUnexpectedToken(type, p);
+        }
+        return values;
+    }
+
+    private static int indexOf(String @NotNull [] names, @NotNull String name) {
+        for(int i = 0; i < names.length; i++) if(names[i].equals(name)) return i;
+        return -1;
+    }
+
+    private static final class DimensionDeserializer extends StdDeserializer<JsonDimension> {
+        private DimensionDeserializer() { super(JsonDimension.class); }
+
+        public @Override JsonDimension deserialize(@NotNull JsonParser p, @NotNull DeserializationContext ctxt) throws IOException {
+            int[] v = readInts(p, ctxt, JsonDimension.class, "width", "height");
+            return new JsonDimension(v[0], v[1]);
+        }
+    }
+
+    private static final class DimensionSerializer extends StdSerializer<JsonDimension> {
+        private DimensionSerializer() { super(JsonDimension.class); }
+
+        public @Override void serialize(@NotNull JsonDimension d, @NotNull JsonGenerator gen, @NotNull SerializerProvider provider) throws IOException {
+            gen.writeStartArray(d, 2);
+            gen.writeNumber(d.width);
+            gen.writeNumber(d.height);
+            gen.writeEndArray();
+        }
+    }
+
+    private static final class PointDeserializer extends StdDeserializer<JsonPoint> {
+        private PointDeserializer() { super(JsonPoint.class); }
+
+        public @Override JsonPoint deserialize(@NotNull JsonParser p, @NotNull DeserializationContext ctxt) throws IOException {
+            int[] v = readInts(p, ctxt, JsonPoint.class, "x", "y");
+            return new JsonPoint(v[0], v[1]);
+        }
+    }
+
+    private static final class PointSerializer extends StdSerializer<JsonPoint> {
+        private PointSerializer() { super(JsonPoint.class); }
+
+        public @Override void serialize(@NotNull JsonPoint pt, @NotNull JsonGenerator gen, @NotNull SerializerProvider provider) throws IOException {
+            gen.writeStartArray(pt, 2);
+            gen.writeNumber(pt.x);
+            gen.writeNumber(pt.y);
+            gen.writeEndArray();
+        }
+    }
+
+    private static final class RectDeserializer extends StdDeserializer<JsonRect> {
+        private RectDeserializer() { super(JsonRect.class); }
+
+        public @Override JsonRect deserialize(@NotNull JsonParser p, @NotNull DeserializationContext ctxt) throws IOException {
+            int[] v = readInts(p, ctxt, JsonRect.class, "x", "y", "width", "height");
+            return new JsonRect(v[0], v[1], v[2], v[3]);
+        }
+    }
+
+    private static final class RectSerializer extends StdSerializer<JsonRect> {
+        private RectSerializer() { super(JsonRect.class); }
+
+        public @Override void serialize(@NotNull JsonRect r, @NotNull JsonGenerator gen, @NotNull SerializerProvider provider) throws IOException {
+            gen.writeStartArray(r, 4);
+            gen.writeNumber(r.x);
+            gen.writeNumber(r.y);
+            gen.writeNumber(r.width);
+            gen.writeNumber(r.height);
+            gen.writeEndArray();
+        }
+    }
+}
@@ -18,28 +18,167 @@ package com.projectgalen.lib.json;
 // ================================================================================================================================
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import static com.projectgalen.lib.json.JSON.Options.*;
 
+/**
+ * Shared, pre-configured Jackson readers and writers. Building an {@link ObjectMapper} is expensive and a new one starts with empty serializer and
+ * deserializer caches, so exactly one mapper is built for each distinct set of options and kept internally. Each of those mappers also keeps an
+ * {@link ObjectReader} and {@link ObjectWriter} for every type it has been asked about. Readers and writers are immutable and thread-safe so they can be used
+ * from any number of threads at once, and they are the fast path.
+ * <p>
+ * The internal mappers are never handed out because an {@link ObjectMapper} can be reconfigured. {@link #getMapper(Options...)} returns a copy of one, which
+ * the caller is free to reconfigure, and {@link #newMapper(Options...)} builds a new one from scratch.
+ * <p>
+ * Large documents can be processed in constant memory with {@link #stream(InputStream, Class)} and {@link #iterator(InputStream, Class)}, which read one
+ * value at a time from newline-delimited JSON or from a top-level array, and with {@link #writeStream(OutputStream, Stream)} and
+ * {@link #writeArray(OutputStream, Stream)}, which write one value at a time.
+ */
 @SuppressWarnings("unused")
 public final class JSON {
-    private static final Options[] DEFAULT_OPTIONS = { EnumsUsingToString, Formatted, IncludeNonNull, AutoClose, IgnoreUnknownProps, UnwrapSingleElementArrays };
+    private static final Options[]                      DEFAULT_OPTIONS = { EnumsUsingToString, Formatted, IncludeNonNull, AutoClose, IgnoreUnknownProps, UnwrapSingleElementArrays };
+    private static final int                            DEFAULT_MASK    = mask(DEFAULT_OPTIONS);
+    private static final AtomicReferenceArray<Mappings> MAPPINGS        = new AtomicReferenceArray<>(1 << Options.values().length);
 
     private JSON() { }
 
+    /**
+     * @return A new mapper for the default options.
+     */
     public static @NotNull ObjectMapper getMapper() {
-        return getMapper(DEFAULT_OPTIONS);
+        return getMappings(DEFAULT_MASK).mapper.copy();
     }
 
+    /**
+     * Returns a new mapper for the given options, copied from the internal one. It belongs to the caller and may be reconfigured without affecting anything
+     * else. Use {@link #getReader(Class, Options...)} and {@link #getWriter(Class, Options...)} on hot paths instead.
+     *
+     * @param options The options.
+     *
+     * @return The new mapper.
+     */
     public static @NotNull ObjectMapper getMapper(Options @NotNull ... options) {
-        ObjectMapper mapper = new ObjectMapper();
+        return getMappings(mask(options)).mapper.copy();
+    }
+
+    public static @NotNull ObjectReader getReader(@NotNull Class<?> type) {
+        return getMappings(DEFAULT_MASK).reader(type);
+    }
+
+    /**
+     * Returns the shared reader for the given type and options.
+     *
+     * @param type    The type to read.
+     * @param options The options.
+     *
+     * @return The reader.
+     */
+    public static @NotNull ObjectReader getReader(@NotNull Class<?> type, Options @NotNull ... options) {
+        return getMappings(mask(options)).reader(type);
+    }
+
+    public static @NotNull ObjectReader getReader(@NotNull TypeReference<?> type) {
+        return getMappings(DEFAULT_MASK).reader(type);
+    }
+
+    public static @NotNull ObjectReader getReader(@NotNull TypeReference<?> type, Options @NotNull ... options) {
+        return getMappings(mask(options)).reader(type);
+    }
+
+    /**
+     * @return The shared writer, for values of any type, for the default options.
+     */
+    public static @NotNull ObjectWriter getWriter() {
+        return getMappings(DEFAULT_MASK).writer;
+    }
+
+    public static @NotNull ObjectWriter getWriter(Options @NotNull ... options) {
+        return getMappings(mask(options)).writer;
+    }
+
+    public static @NotNull ObjectWriter getWriter(@NotNull Class<?> type) {
+        return getMappings(DEFAULT_MASK).writer(type);
+    }
+
+    /**
+     * Returns the shared writer for the given type and options. Values are serialized as the given type rather than as their runtime type.
+     *
+     * @param type    The type to write.
+     * @param options The options.
+     *
+     * @return The writer.
+     */
+    public static @NotNull ObjectWriter getWriter(@NotNull Class<?> type, Options @NotNull ... options) {
+        return getMappings(mask(options)).writer(type);
+    }
+
+    public static <T> @NotNull MappingIterator<T> iterator(@NotNull InputStream in, @NotNull Class<T> type) throws IOException {
+        return getReader(type).readValues(in);
+    }
+
+    /**
+     * Returns a lazy iterator over a sequence of JSON values. The input may be newline-delimited JSON (or any whitespace separated sequence of values) or a
+     * single top-level array, in which case the elements of the array are returned one at a time. Only the current value is ever held in memory. Closing the
+     * iterator closes the input stream.
+     *
+     * @param in      The input stream.
+     * @param type    The type of the values.
+     * @param options The options.
+     * @param <T>     The type of the values.
+     *
+     * @return The iterator.
+     *
+     * @throws IOException If the start of the input could not be read.
+     */
+    public static <T> @NotNull MappingIterator<T> iterator(@NotNull InputStream in, @NotNull Class<T> type, Options @NotNull ... options) throws IOException {
+        return getReader(type, options).readValues(in);
+    }
+
+    public static <T> @NotNull MappingIterator<T> iterator(@NotNull Reader in, @NotNull Class<T> type) throws IOException {
+        return getReader(type).readValues(in);
+    }
+
+    public static <T> @NotNull MappingIterator<T> iterator(@NotNull Reader in, @NotNull Class<T> type, Options @NotNull ... options) throws IOException {
+        return getReader(type, options).readValues(in);
+    }
+
+    /**
+     * Creates a new, private, mapper for the given options. It may be reconfigured freely.
+     *
+     * @param options The options.
+     *
+     * @return The new mapper.
+     */
+    public static @NotNull ObjectMapper newMapper(Options @NotNull ... options) {
+        ObjectMapper mapper = ((mask(options) & (1 << Binary.ordinal())) == 0) ? new ObjectMapper() : new ObjectMapper(new SmileFactory());
 
         for(Options opt : options) {
             switch(opt) {
+                case Binary -> { /* Handled above. */ }
+                case CompactGeometry -> mapper.registerModule(new GeometryModule());
+                case Blackbird -> mapper.registerModule(new BlackbirdModule());
                 case Formatted -> mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
                 case IncludeNonNull -> mapper.setSerializationInclusion(Include.NON_NULL);
                 case AutoClose -> mapper.configure(SerializationFeature.CLOSE_CLOSEABLE, true);
@@ -58,7 +197,244 @@ public final class JSON {
         return mapper;
     }
 
+    public static void prewarm(Class<?> @NotNull ... types) {
+        prewarm(List.of(types), DEFAULT_OPTIONS);
+    }
+
+    /**
+     * Builds, and caches, the shared reader and writer for each type so that the cost of introspecting the types, building their serializers and
+     * deserializers and, with {@link Options#Blackbird}, generating their accessors is paid at startup instead of by the first requests.
+     *
+     * @param types   The types to prepare.
+     * @param options The options the types will be used with.
+     */
+    public static void prewarm(@NotNull Collection<Class<?>> types, Options @NotNull ... options) {
+        Mappings m = getMappings(mask(options));
+        for(Class<?> type : types) {
+            // Readers and writers fetch their root (de)serializer eagerly when they are created.
+            m.reader(type);
+            m.writer(type);
+        }
+    }
+
+    /**
+     * Reads a value using the shared reader for the default options.
+     *
+     * @param json The JSON text.
+     * @param type The type to read.
+     * @param <T>  The type to read.
+     *
+     * @return The value.
+     *
+     * @throws IOException If the JSON could not be parsed or mapped to the type.
+     */
+    public static <T> T read(@NotNull String json, @NotNull Class<T> type) throws IOException {
+        return getReader(type).readValue(json);
+    }
+
+    public static <T> T read(@NotNull String json, @NotNull TypeReference<T> type) throws IOException {
+        return getReader(type).readValue(json);
+    }
+
+    public static <T> T read(byte @NotNull [] json, @NotNull Class<T> type) throws IOException {
+        return getReader(type).readValue(json);
+    }
+
+    public static <T> T read(@NotNull InputStream in, @NotNull Class<T> type) throws IOException {
+        return getReader(type).readValue(in);
+    }
+
+    public static <T> T read(@NotNull Reader in, @NotNull Class<T> type) throws IOException {
+        return getReader(type).readValue(in);
+    }
+
+    public static <T> @NotNull Stream<T> stream(@NotNull InputStream in, @NotNull Class<T> type) throws IOException {
+        return stream(iterator(in, type));
+    }
+
+    /**
+     * The same as {@link #iterator(InputStream, Class, Options...)} except that the values are returned as a lazy, sequential {@link Stream}. Closing the
+     * stream closes the input stream so it should be used in a try-with-resources block. Parsing errors are thrown as
+     * {@link com.fasterxml.jackson.databind.RuntimeJsonMappingException}.
+     *
+     * @param in      The input stream.
+     * @param type    The type of the values.
+     * @param options The options.
+     * @param <T>     The type of the values.
+     *
+     * @return The stream.
+     *
+     * @throws IOException If the start of the input could not be read.
+     */
+    public static <T> @NotNull Stream<T> stream(@NotNull InputStream in, @NotNull Class<T> type, Options @NotNull ... options) throws IOException {
+        return stream(iterator(in, type, options));
+    }
+
+    public static <T> @NotNull Stream<T> stream(@NotNull Reader in, @NotNull Class<T> type) throws IOException {
+        return stream(iterator(in, type));
+    }
+
+    public static <T> @NotNull Stream<T> stream(@NotNull Reader in, @NotNull Class<T> type, Options @NotNull ... options) throws IOException {
+        return stream(iterator(in, type, options));
+    }
+
+    /**
+     * Writes a value using the shared writer for the default options.
+     *
+     * @param value The value.
+     *
+     * @return The JSON text.
+     *
+     * @throws IOException If the value could not be serialized.
+     */
+    public static @NotNull String write(Object value) throws IOException {
+        return getWriter().writeValueAsString(value);
+    }
+
+    public static void write(@NotNull OutputStream out, Object value) throws IOException {
+        getWriter().writeValue(out, value);
+    }
+
+    public static void write(@NotNull Writer out, Object value) throws IOException {
+        getWriter().writeValue(out, value);
+    }
+
+    public static <T> long writeArray(@NotNull OutputStream out, @NotNull Stream<T> values) throws IOException {
+        return writeArray(out, values, DEFAULT_OPTIONS);
+    }
+
+    /**
+     * Writes the values as the elements of a single JSON array, one at a time, so the values never all have to be in memory. The output stream is not closed.
+     *
+     * @param out     The output stream.
+     * @param values  The values.
+     * @param options The options.
+     * @param <T>     The type of the values.
+     *
+     * @return The number of values written.
+     *
+     * @throws IOException If an I/O error occurs or a value could not be serialized.
+     */
+    public static <T> long writeArray(@NotNull OutputStream out, @NotNull Stream<T> values, Options @NotNull ... options) throws IOException {
+        try(SequenceWriter sw = getMappings(mask(options)).arrayWriter.writeValuesAsArray(out)) {
+            return write(sw, values);
+        }
+    }
+
+    public static byte @NotNull [] writeBytes(Object value) throws IOException {
+        return getWriter().writeValueAsBytes(value);
+    }
+
+    public static <T> long writeStream(@NotNull OutputStream out, @NotNull Stream<T> values) throws IOException {
+        return writeStream(out, values, DEFAULT_OPTIONS);
+    }
+
+    /**
+     * Writes the values as newline-delimited JSON, one value per line, so the values never all have to be in memory. The {@link Options#Formatted} option is
+     * ignored because each value has to fit on one line. With {@link Options#Binary} the values are written back to back as a sequence of Smile documents,
+     * with no separators, which {@link #stream(InputStream, Class, Options...)} reads back the same way. The output stream is not closed.
+     *
+     * @param out     The output stream.
+     * @param values  The values.
+     * @param options The options.
+     * @param <T>     The type of the values.
+     *
+     * @return The number of values written.
+     *
+     * @throws IOException If an I/O error occurs or a value could not be serialized.
+     */
+    public static <T> long writeStream(@NotNull OutputStream out, @NotNull Stream<T> values, Options @NotNull ... options) throws IOException {
+        Mappings m = getMappings(mask(options));
+        long     count;
+        try(SequenceWriter sw = m.lineWriter.writeValues(out)) {
+            count = write(sw, values);
+        }
+        if((count > 0) && !m.binary) out.write('\n');
+        return count;
+    }
+
+    private static @NotNull Mappings getMappings(int mask) {
+        Mappings m = MAPPINGS.get(mask);
+        if(m == null) {
+            Mappings n = new Mappings(newMapper(options(mask)));
+            m = MAPPINGS.compareAndExchange(mask, null, n);
+            if(m == null) m = n;
+        }
+        return m;
+    }
+
+    private static <T> @NotNull Stream<T> stream(@NotNull MappingIterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose(() -> {
+            try { iterator.close(); }
+            catch(IOException e) { throw new UncheckedIOException(e); }
+        });
+    }
+
+    private static <T> long write(@NotNull SequenceWriter sw, @NotNull Stream<T> values) throws IOException {
+        long count = 0;
+        for(Iterator<T> it = values.sequential().iterator(); it.hasNext(); ++count) sw.write(it.next());
+        return count;
+    }
+
+    private static int mask(Options @NotNull ... options) {
+        int mask = 0;
+        for(Options opt : options) mask |= (1 << opt.ordinal());
+        return mask;
+    }
+
+    private static Options @NotNull [] options(int mask) {
+        Options[] all  = Options.values();
+        Options[] opts = new Options[Integer.bitCount(mask)];
+        for(int i = 0, j = 0; i < all.length; i++) if((mask & (1 << i)) != 0) opts[j++] = all[i];
+        return opts;
+    }
+
     public enum Options {
-        EnumsUsingToString, Formatted, IncludeNonNull, AutoClose, IgnoreUnknownProps, UnwrapSingleElementArrays
+        EnumsUsingToString, Formatted, IncludeNonNull, AutoClose, IgnoreUnknownProps, UnwrapSingleElementArrays,
+        /**
+         * Reads and writes Jackson's binary Smile format instead of text JSON. Smile is smaller and faster to parse; use {@link #read(byte[], Class)},
+         * {@link #writeBytes(Object)} or the stream methods since the output is not text.
+         */
+        Binary,
+        /**
+         * Writes {@link JsonPoint}, {@link JsonDimension} and {@link JsonRect} as arrays of numbers. See {@link GeometryModule}.
+         */
+        CompactGeometry,
+        /**
+         * Registers Jackson's Blackbird module, which replaces reflective field, getter, setter and constructor calls with accessors generated through
+         * {@link java.lang.invoke.LambdaMetafactory}. The first use of each type is a little slower; after that (de)serialization of beans is faster.
+         */
+        Blackbird
+    }
+
+    private static final class Mappings {
+        private final ObjectMapper                              mapper;
+        private final ObjectWriter                              writer;
+        private final ObjectWriter                              lineWriter;
+        private final ObjectWriter                              arrayWriter;
+        private final boolean                                   binary;
+        private final ConcurrentHashMap<Class<?>, ObjectReader> readers     = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<JavaType, ObjectReader> typeReaders = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, ObjectWriter> writers     = new ConcurrentHashMap<>();
+
+        private Mappings(@NotNull ObjectMapper mapper) {
+            this.mapper      = mapper;
+            this.writer      = mapper.writer();
+            this.binary      = (mapper.getFactory() instanceof SmileFactory);
+            this.arrayWriter = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.lineWriter  = (binary ? arrayWriter : arrayWriter.without(SerializationFeature.INDENT_OUTPUT).withRootValueSeparator("\n"));
+        }
+
+        private @NotNull ObjectReader reader(@NotNull Class<?> type) {
+            return readers.computeIfAbsent(type, mapper::readerFor);
+        }
+
+        private @NotNull ObjectReader reader(@NotNull TypeReference<?> type) {
+            return typeReaders.computeIfAbsent(mapper.getTypeFactory().constructType(type), mapper::readerFor);
+        }
+
+        private @NotNull ObjectWriter writer(@NotNull Class<?> type) {
+            return writers.computeIfAbsent(type, mapper::writerFor);
+        }
     }
 }
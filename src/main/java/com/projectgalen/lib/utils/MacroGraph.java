@@ -0,0 +1,205 @@
+package com.projectgalen.lib.utils;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: MacroGraph.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.text.MacroTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The macros of one load of a {@link PGProperties}: the raw values, the compiled templates, which keys refer to which, and the expanded values. Building the
+ * graph for a new load from the graph of the previous one only compiles and expands the keys whose raw values changed, and the keys that refer to them
+ * directly or indirectly. Those are expanded in dependency order so each value is expanded exactly once and simply inserted into the values that refer to it.
+ * <p>
+ * Cycles are found once, while ordering the keys. The keys in a cycle are expanded the old way, with {@link MacroTemplate#expand2(Function)}, which leaves the
+ * macro that closes the cycle as it is.
+ * <p>
+ * Instances are never changed after they are built.
+ */
+final class MacroGraph {
+
+    private static final MacroGraph EMPTY = new MacroGraph(Map.of(), Map.of(), Map.of(), Map.of());
+
+    private final @NotNull Map<String, String>        raw;
+    private final @NotNull Map<String, MacroTemplate> templates;
+    private final @NotNull Map<String, String>        expanded;
+    private final @NotNull Map<String, Set<String>>   dependents;
+
+    private MacroGraph(@NotNull Map<String, String> raw, @NotNull Map<String, MacroTemplate> templates, @NotNull Map<String, String> expanded, @NotNull Map<String, Set<String>> dependents) {
+        this.raw        = raw;
+        this.templates  = templates;
+        this.expanded   = expanded;
+        this.dependents = dependents;
+    }
+
+    /**
+     * @return The expanded values of the keys whose expanded values differ from their raw values. Every other key expands to its raw value.
+     */
+    @NotNull Map<String, String> getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Builds the graph for a new load.
+     *
+     * @param previous The graph of the previous load or {@code null} if there wasn't one.
+     * @param raw      The raw values of the new load.
+     * @param fallback Looks up the values of macros that aren't keys in {@code raw}, usually in the defaults.
+     *
+     * @return The new graph.
+     */
+    static @NotNull MacroGraph build(@Nullable MacroGraph previous, @NotNull Map<String, String> raw, @NotNull Function<String, String> fallback) {
+        MacroGraph  prev    = ((previous == null) ? EMPTY : previous);
+        Set<String> changed = new HashSet<>();
+
+        raw.forEach((k, v) -> { if(!v.equals(prev.raw.get(k))) changed.add(k); });
+        prev.raw.keySet().forEach(k -> { if(!raw.containsKey(k)) changed.add(k); });
+        if(changed.isEmpty()) return prev;
+
+        Map<String, MacroTemplate> templates = new HashMap<>(prev.templates);
+        Map<String, String>        expanded  = new HashMap<>(prev.expanded);
+        boolean                    rewired   = false;
+
+        for(String key : changed) {
+            rewired |= (templates.remove(key) != null);
+            expanded.remove(key);
+            String value = raw.get(key);
+            if(value == null) continue;
+
+            MacroTemplate t = MacroTemplate.compile(value);
+            if(!t.isConstant()) {
+                templates.put(key, t);
+                rewired = true;
+            }
+            else {
+                String literal = t.substitute(n -> null);
+                if(!literal.equals(value)) expanded.put(key, literal);
+            }
+        }
+
+        Map<String, Set<String>> dependents = (rewired ? getDependents(templates) : prev.dependents);
+        MacroGraph               graph      = new MacroGraph(Map.copyOf(raw), templates, expanded, dependents);
+        graph.expand(getDirty(changed, dependents, templates), fallback);
+        return graph;
+    }
+
+    /**
+     * Expands the given keys, all of which have templates, in dependency order.
+     */
+    private void expand(@NotNull Set<String> dirty, @NotNull Function<String, String> fallback) {
+        Function<String, String> resolved   = n -> { String v = expanded.get(n); if(v == null) v = raw.get(n); return ((v == null) ? fallback.apply(n) : v); };
+        Function<String, String> unresolved = n -> { String v = raw.get(n); return ((v == null) ? fallback.apply(n) : v); };
+
+        forEachComponent(dirty, component -> {
+            String first = component.get(0);
+            if((component.size() == 1) && !templates.get(first).getNames().contains(first)) {
+                expanded.put(first, templates.get(first).substitute(resolved));
+            }
+            else {
+                for(String key : component) expanded.put(key, templates.get(key).expand2(unresolved));
+            }
+        });
+    }
+
+    /**
+     * Finds the strongly connected components of the given keys with Tarjan's algorithm. Each component is passed to the consumer after every component that
+     * it refers to, which is exactly the order they have to be expanded in. The algorithm is done with an explicit stack so long chains of references can't
+     * overflow the thread's stack.
+     */
+    private void forEachComponent(@NotNull Set<String> nodes, @NotNull Consumer<List<String>> consumer) {
+        Map<String, int[]> state = new HashMap<>();
+        Deque<String>      stack = new ArrayDeque<>();
+        Deque<Frame>       work  = new ArrayDeque<>();
+        int                index = 0;
+
+        for(String root : nodes) {
+            if(state.containsKey(root)) continue;
+            state.put(root, new int[] { index, index++, 1 });
+            stack.push(root);
+            work.push(new Frame(root, templates.get(root).getNames().iterator()));
+
+            while(!work.isEmpty()) {
+                Frame f = work.peek();
+                if(f.names.hasNext()) {
+                    String n = f.names.next();
+                    if(!nodes.contains(n)) continue;
+                    int[] s = state.get(n);
+                    if(s == null) {
+                        state.put(n, new int[] { index, index++, 1 });
+                        stack.push(n);
+                        work.push(new Frame(n, templates.get(n).getNames().iterator()));
+                    }
+                    else if(s[2] == 1) {
+                        int[] fs = state.get(f.key);
+                        fs[1] = Math.min(fs[1], s[0]);
+                    }
+                }
+                else {
+                    work.pop();
+                    int[] s = state.get(f.key);
+                    if(!work.isEmpty()) {
+                        int[] ps = state.get(work.peek().key);
+                        ps[1] = Math.min(ps[1], s[1]);
+                    }
+                    if(s[1] == s[0]) {
+                        List<String> component = new ArrayList<>(1);
+                        String       n;
+                        do {
+                            n = stack.pop();
+                            state.get(n)[2] = 0;
+                            component.add(n);
+                        }
+                        while(!n.equals(f.key));
+                        consumer.accept(component);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return For each macro name, the keys whose templates refer to it.
+     */
+    private static @NotNull Map<String, Set<String>> getDependents(@NotNull Map<String, MacroTemplate> templates) {
+        Map<String, Set<String>> dependents = new HashMap<>();
+        templates.forEach((k, t) -> { for(String n : t.getNames()) dependents.computeIfAbsent(n, x -> new HashSet<>()).add(k); });
+        return dependents;
+    }
+
+    /**
+     * @return The changed keys, and every key that refers to them directly or indirectly, that have templates.
+     */
+    private static @NotNull Set<String> getDirty(@NotNull Set<String> changed, @NotNull Map<String, Set<String>> dependents, @NotNull Map<String, MacroTemplate> templates) {
+        Set<String>   dirty = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(changed);
+        Set<String>   seen  = new HashSet<>(changed);
+
+        while(!queue.isEmpty()) {
+            String key = queue.pop();
+            if(templates.containsKey(key)) dirty.add(key);
+            for(String d : dependents.getOrDefault(key, Set.of())) if(seen.add(d)) queue.push(d);
+        }
+        return dirty;
+    }
+
+    private record Frame(@NotNull String key, @NotNull Iterator<String> names) { }
+}
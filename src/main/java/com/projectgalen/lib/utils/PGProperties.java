@@ -17,43 +17,82 @@ package com.projectgalen.lib.utils;
 // NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ================================================================================================================================
 
-import com.projectgalen.lib.utils.text.Macros;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
 import java.util.Map.Entry;
-import java.util.Properties;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.zip.CRC32C;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
 
+/**
+ * {@link Properties} with typed getters, macro expansion and optional periodic reloading.
+ * <p>
+ * {@link #getProperty(String)}, and every typed getter built on it, reads from an immutable snapshot of the string properties that is published through a
+ * volatile field, so reads never lock and never see a table in the middle of being changed. Every {@link Map} mutator ({@code put}, {@code remove},
+ * {@code clear}, {@code load}, {@code setProperty}, ...) invalidates the snapshot. Building a new one copies the whole table so, until the table has been read
+ * about as many times as it has entries, {@link #getProperty(String)} reads the live table instead and code that alternates {@code setProperty} and
+ * {@code getProperty} does not pay for a copy on every read. A typed getter always builds the new snapshot because its cache lives there. Changes made through
+ * the {@code keySet()}, {@code values()} or {@code entrySet()} views are not tracked and will not be seen by {@link #getProperty(String)} until the next
+ * mutator call.
+ * <p>
+ * The typed getters parse without throwing exceptions and cache the parsed value in the snapshot, so after the first call they cost one map lookup and the
+ * cache is thrown away, along with the snapshot, when anything changes. Values that come from the defaults are cached too, so the defaults should not be
+ * changed after this instance is created.
+ * <p>
+ * A reload loads the properties into a scratch instance first and only if that succeeds swaps the new values in, all at once, so readers see either the old
+ * values or the new values and never an empty or half-loaded table.
+ * <p>
+ * Reloads run on one shared daemon thread. When the properties come from a file (or from a resource that is a file) the file is also watched with a
+ * {@link WatchService} so changes are picked up as soon as they are saved, after a short debounce, rather than only at the next period. Either way the file is
+ * only re-read when its modification time or size has changed, and only re-parsed when its contents have changed. Listeners added with
+ * {@link #addChangeListener(ChangeListener)} are told about the keys that a reload actually added, removed or changed. Call {@link #close()} to stop
+ * reloading.
+ */
 @SuppressWarnings({ "FieldCanBeLocal", "unused" })
-public class PGProperties extends Properties {
+public class PGProperties extends Properties implements Closeable {
 
     private static final PGResourceBundle                msgs           = new PGResourceBundle("com.projectgalen.lib.utils.messages");
     private static final Function<PGProperties, Boolean> DEFAULT_LOADER = p -> true;
-
-    private final Function<PGProperties, Boolean> loader;
-    private final long                            reloadPeriod;
-    private final TimeUnit                        timeUnit;
-    private final ScheduledExecutorService        executor;
+    private static final Object                          INVALID        = new Object();
+    private static final long                            DEBOUNCE_MS    = 250;
+    private static final int                             MIN_LIVE_READS = 16;
+
+    private final           Function<PGProperties, Boolean> loader;
+    private final           long                            reloadPeriod;
+    private final           TimeUnit                        timeUnit;
+    private final @Nullable Path                            source;
+
+    private transient volatile Snapshot                   snapshot;
+    private transient volatile long                       version;
+    private transient volatile ScheduledFuture<?>         reloadTask;
+    private transient volatile MacroGraph                 macros;
+    private transient volatile int                        liveReads;
+    private transient          ScheduledFuture<?>         pendingReload;
+    private transient          long                       sourceModified;
+    private transient          long                       sourceSize;
+    private transient          long                       sourceChecksum;
+    private transient final    List<ChangeListener>       listeners  = new CopyOnWriteArrayList<>();
+    private transient final    Object                     reloadLock = new Object();
 
     public PGProperties(Properties defaults) {
-        this(DEFAULT_LOADER, -1, null, defaults);
+        this(DEFAULT_LOADER, -1, null, defaults, null);
     }
 
     public PGProperties() {
-        this(DEFAULT_LOADER, -1, null, null);
+        this(DEFAULT_LOADER, -1, null, null, null);
     }
 
     /**
@@ -63,30 +102,76 @@ public class PGProperties extends Properties {
      * @param reloadPeriod The interval period. A value less than 1 means the properties will not be reloaded after the initial load.
      * @param timeUnit     The units for the value of <code>reloadPeriod</code>. The default is {@link TimeUnit#MILLISECONDS}.
      * @param defaults     The defaults
+     * @param source       The file the properties are loaded from, if there is one, so that it can be watched for changes. A reloading instance reads this file
+     *                     directly instead of calling the loader.
      */
-    private PGProperties(@NotNull Function<PGProperties, Boolean> loader, long reloadPeriod, TimeUnit timeUnit, Properties defaults) {
+    private PGProperties(@NotNull Function<PGProperties, Boolean> loader, long reloadPeriod, TimeUnit timeUnit, Properties defaults, @Nullable Path source) {
         super(defaults);
-        if(!loader.apply(this)) throw new RuntimeException(msgs.getString("msg.err.prop_load_failure"));
-        expandMacros();
+        this.source = ((reloadPeriod > 0) ? source : null);
+
+        // A watched file is parsed from the same bytes its change baseline is taken from, so an edit made while loading is never recorded as already seen.
+        byte[] data = ((this.source == null) ? null : readIfChanged());
+        if(!((data == null) ? loader.apply(this) : loadFromInputStream(new ByteArrayInputStream(data)))) throw new RuntimeException(msgs.getString("msg.err.prop_load_failure"));
+        expandMacros(null);
 
         if(reloadPeriod > 0) {
             this.loader       = loader;
             this.reloadPeriod = reloadPeriod;
             this.timeUnit     = ofNullable(timeUnit).orElse(TimeUnit.MILLISECONDS);
-            this.executor     = Executors.newSingleThreadScheduledExecutor();
-            this.executor.scheduleAtFixedRate(this::reload, this.reloadPeriod, this.reloadPeriod, this.timeUnit);
+            if(source != null) Watcher.register(source, this);
+            this.reloadTask = Reloader.SCHEDULER.scheduleWithFixedDelay(this::reload, this.reloadPeriod, this.reloadPeriod, this.timeUnit);
         }
         else {
             this.loader       = null;
             this.reloadPeriod = -1;
             this.timeUnit     = null;
-            this.executor     = null;
         }
     }
 
+    /**
+     * Adds a listener that is called, on the reload thread, after a reload has changed at least one property. Changes made directly, with {@code put},
+     * {@code setProperty} and so on, are not reported.
+     *
+     * @param listener The listener.
+     */
+    public void addChangeListener(@NotNull ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops reloading. The current values stay as they are.
+     */
+    public @Override void close() {
+        ScheduledFuture<?> task = reloadTask;
+        reloadTask = null;
+        if(task != null) task.cancel(false);
+        synchronized(reloadLock) {
+            if(pendingReload != null) pendingReload.cancel(false);
+            pendingReload = null;
+        }
+        if(source != null) Watcher.unregister(source, this);
+    }
+
+    /**
+     * Returns a boolean property. "true", "yes", "on" and "1" are {@code true}; "false", "no", "off" and "0" are {@code false}. Case is ignored.
+     *
+     * @param key          The property key.
+     * @param defaultValue The value to return if the property is missing or is not a boolean.
+     *
+     * @return The value.
+     */
+    public boolean getBoolean(@NotNull @NonNls String key, boolean defaultValue) {
+        Object v = getParsed(key, Kind.BOOLEAN);
+        return ((v == null) ? defaultValue : (Boolean)v);
+    }
+
+    public boolean getBoolean(@NotNull @NonNls String key) {
+        return getBoolean(key, false);
+    }
+
     public byte getByte(@NotNull @NonNls String key, byte defaultValue) {
-        try { return Byte.parseByte(getProperty(key)); }
-        catch(Exception ignored) { return defaultValue; }
+        Object v = getParsed(key, Kind.BYTE);
+        return ((v == null) ? defaultValue : (Byte)v);
     }
 
     public byte getByte(@NotNull @NonNls String key) {
@@ -94,17 +179,61 @@ public class PGProperties extends Properties {
     }
 
     public double getDouble(@NotNull @NonNls String key, double defaultValue) {
-        try { return Double.parseDouble(getProperty(key)); }
-        catch(Exception ignored) { return defaultValue; }
+        Object v = getParsed(key, Kind.DOUBLE);
+        return ((v == null) ? defaultValue : (Double)v);
     }
 
     public double getDouble(@NotNull @NonNls String key) {
         return getDouble(key, 0);
     }
 
+    /**
+     * Returns a duration property. The value can be an ISO-8601 duration ("PT1H30M") or one or more numbers with units ("1h30m", "250ms", "2d"). The units are
+     * ns, us, ms, s, m, h and d. A number without a unit is a number of milliseconds.
+     *
+     * @param key          The property key.
+     * @param defaultValue The value to return if the property is missing or is not a duration.
+     *
+     * @return The value.
+     */
+    public Duration getDuration(@NotNull @NonNls String key, Duration defaultValue) {
+        Object v = getParsed(key, Kind.DURATION);
+        return ((v == null) ? defaultValue : (Duration)v);
+    }
+
+    public @Nullable Duration getDuration(@NotNull @NonNls String key) {
+        return getDuration(key, null);
+    }
+
+    /**
+     * Returns an enum property. The value is matched against the names of the constants, first exactly and then ignoring case.
+     *
+     * @param key          The property key.
+     * @param defaultValue The value to return if the property is missing or does not name a constant.
+     * @param <E>          The enum type.
+     *
+     * @return The value.
+     */
+    public <E extends Enum<E>> @NotNull E getEnum(@NotNull @NonNls String key, @NotNull E defaultValue) {
+        E v = getEnum(key, defaultValue.getDeclaringClass());
+        return ((v == null) ? defaultValue : v);
+    }
+
+    public <E extends Enum<E>> @Nullable E getEnum(@NotNull @NonNls String key, @NotNull Class<E> type) {
+        Map<String, Object> cache = getSnapshot().enums.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        Object              v     = cache.get(key);
+        if(v == null) {
+            String str = getProperty(key);
+            E      e   = ((str == null) ? null : PropertyValues.parseEnum(str, type));
+            cache.put(key, ((e == null) ? INVALID : e));
+            return e;
+        }
+        return ((v == INVALID) ? null : type.cast(v));
+    }
+
     public float getFloat(@NotNull @NonNls String key, float defaultValue) {
-        try { return Float.parseFloat(getProperty(key)); }
-        catch(Exception ignored) { return defaultValue; }
+        Object v = getParsed(key, Kind.FLOAT);
+        return ((v == null) ? defaultValue : (Float)v);
     }
 
     public float getFloat(@NotNull @NonNls String key) {
@@ -112,8 +241,8 @@ public class PGProperties extends Properties {
     }
 
     public int getInt(@NotNull @NonNls String key, int defaultValue) {
-        try { return Integer.parseInt(getProperty(key)); }
-        catch(Exception ignored) { return defaultValue; }
+        Object v = getParsed(key, Kind.INT);
+        return ((v == null) ? defaultValue : (Integer)v);
     }
 
     public int getInt(@NotNull @NonNls String key) {
@@ -121,37 +250,181 @@ public class PGProperties extends Properties {
     }
 
     public long getLong(@NotNull @NonNls String key, long defaultValue) {
-        try { return Long.parseLong(getProperty(key)); }
-        catch(Exception ignored) { return defaultValue; }
+        Object v = getParsed(key, Kind.LONG);
+        return ((v == null) ? defaultValue : (Long)v);
     }
 
     public long getLong(@NotNull @NonNls String key) {
         return getLong(key, 0);
     }
 
+    /**
+     * Searches for the property with the specified key in this property list. Unlike {@link Properties#getProperty(String)} this never takes the table's lock.
+     *
+     * @param key The property key.
+     *
+     * @return The value or {@code null} if there is no such property here or in the defaults.
+     */
+    public @Override String getProperty(String key) {
+        Snapshot s = snapshot;
+        if((s == null) || (s.version != version)) {
+            // A lost update to liveReads between racing threads only moves the rebuild a little.
+            if(++liveReads < Math.max(MIN_LIVE_READS, size())) return super.getProperty(key);
+            s = takeSnapshot();
+        }
+        String value = s.values.get(key);
+        return (((value == null) && (defaults != null)) ? defaults.getProperty(key) : value);
+    }
+
+    public @Nullable Path getSource() {
+        return source;
+    }
+
     public long getReloadPeriod() {
         return reloadPeriod;
     }
 
     public short getShort(@NotNull @NonNls String key, short defaultValue) {
-        try { return Short.parseShort(getProperty(key)); }
-        catch(Exception ignored) { return defaultValue; }
+        Object v = getParsed(key, Kind.SHORT);
+        return ((v == null) ? defaultValue : (Short)v);
     }
 
     public short getShort(@NotNull @NonNls String key) {
         return getShort(key, (short)0);
     }
 
+    /**
+     * Returns a size, in bytes. The value is a whole number followed by an optional unit: B, K, M, G, T, P or E, optionally followed by "B" or "iB" ("64MB",
+     * "512k", "2 GiB"). Every unit is a power of 1024.
+     *
+     * @param key          The property key.
+     * @param defaultValue The value to return if the property is missing or is not a size.
+     *
+     * @return The value.
+     */
+    public long getSize(@NotNull @NonNls String key, long defaultValue) {
+        Object v = getParsed(key, Kind.SIZE);
+        return ((v == null) ? defaultValue : (Long)v);
+    }
+
+    public long getSize(@NotNull @NonNls String key) {
+        return getSize(key, 0);
+    }
+
     public TimeUnit getTimeUnit() {
         return timeUnit;
     }
 
-    private void expandMacro(@NotNull Entry<Object, Object> e) {
-        e.setValue(Macros.expand2(e.getValue().toString(), this::getProperty));
+    public void removeChangeListener(@NotNull ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public @Override synchronized void clear() {
+        super.clear();
+        changed();
+    }
+
+    public @Override synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try { return super.compute(key, remappingFunction); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        try { return super.computeIfAbsent(key, mappingFunction); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try { return super.computeIfPresent(key, remappingFunction); }
+        finally { changed(); }
     }
 
-    private void expandMacros() {
-        entrySet().stream().filter(this::isStringEntry).forEach(this::expandMacro);
+    public @Override synchronized Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try { return super.merge(key, value, remappingFunction); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized Object put(Object key, Object value) {
+        try { return super.put(key, value); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized void putAll(Map<?, ?> t) {
+        try { super.putAll(t); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized Object putIfAbsent(Object key, Object value) {
+        try { return super.putIfAbsent(key, value); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized Object remove(Object key) {
+        try { return super.remove(key); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized boolean remove(Object key, Object value) {
+        try { return super.remove(key, value); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized Object replace(Object key, Object value) {
+        try { return super.replace(key, value); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        try { return super.replace(key, oldValue, newValue); }
+        finally { changed(); }
+    }
+
+    public @Override synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        try { super.replaceAll(function); }
+        finally { changed(); }
+    }
+
+    /**
+     * Called, while holding the lock, after every change. Readers compare the version of the snapshot to this one to know if it is still good.
+     */
+    private void changed() {
+        version = (version + 1);
+    }
+
+    /**
+     * Expands the macros in the values that were just loaded. Given the macros of the previous load only the values that changed, and the values that refer to
+     * them, are expanded again.
+     *
+     * @param previous The macros of the previous load or {@code null} if this is the first load.
+     */
+    private synchronized void expandMacros(@Nullable MacroGraph previous) {
+        Map<String, String> raw = new HashMap<>();
+        for(Entry<Object, Object> e : entrySet()) if(isStringEntry(e)) raw.put((String)e.getKey(), (String)e.getValue());
+        macros = MacroGraph.build(previous, raw, n -> ((defaults == null) ? null : defaults.getProperty(n)));
+        super.putAll(macros.getExpanded());
+        changed();
+    }
+
+    /**
+     * Looks the parsed value up in the snapshot's cache and parses, and caches, it if it is not there yet.
+     *
+     * @return The parsed value or {@code null} if the property is missing or could not be parsed.
+     */
+    private @Nullable Object getParsed(@NotNull String key, @NotNull Kind kind) {
+        Map<String, Object> cache = getSnapshot().parsed.get(kind.ordinal());
+        Object              v     = cache.get(key);
+        if(v == null) {
+            String str = getProperty(key);
+            v = ((str == null) ? null : kind.parser.apply(str));
+            cache.put(key, ((v == null) ? INVALID : v));
+            return v;
+        }
+        return ((v == INVALID) ? null : v);
+    }
+
+    private @NotNull Snapshot getSnapshot() {
+        Snapshot s = snapshot;
+        return (((s != null) && (s.version == version)) ? s : takeSnapshot());
     }
 
     private boolean isStringEntry(@NotNull Entry<Object, Object> e) {
@@ -164,34 +437,109 @@ public class PGProperties extends Properties {
             return true;
         }
         catch(IOException e) {
-            System.err.printf(msgs.getString("msg.err.prop_load_error"), e);
+            System.err.print(msgs.format("msg.err.prop_load_error", e));
             return false;
         }
     }
 
-    private synchronized void reload() {
-        Map<Object, Object> t = new LinkedHashMap<>(this);
-        clear();
+    /**
+     * Checks the source file and, if its contents have changed, returns them. The modification time and size are checked first so that an unchanged file is
+     * never read, and then a checksum of the contents so that a file that was only touched is never parsed.
+     *
+     * @return The new contents of the file or {@code null} if they have not changed.
+     */
+    private byte @Nullable [] readIfChanged() {
+        Path path = requireNonNull(source);
+        try {
+            BasicFileAttributes attrs    = Files.readAttributes(path, BasicFileAttributes.class);
+            long                modified = attrs.lastModifiedTime().toMillis();
+            if((modified == sourceModified) && (attrs.size() == sourceSize)) return null;
+
+            byte[] data  = Files.readAllBytes(path);
+            CRC32C crc   = new CRC32C();
+            crc.update(data);
+            boolean same = ((crc.getValue() == sourceChecksum) && (sourceModified != 0));
+            sourceModified = modified;
+            sourceSize     = attrs.size();
+            sourceChecksum = crc.getValue();
+            return (same ? null : data);
+        }
+        catch(IOException e) {
+            System.err.print(msgs.format("msg.err.prop_load_error", e));
+            return null;
+        }
+    }
+
+    /**
+     * Loads into a scratch instance so that a failed or slow load never disturbs the current values. Only ever runs on the reload thread.
+     */
+    private void reload() {
+        if(reloadTask == null) return;
         try {
-            if(loader.apply(this)) {
-                expandMacros();
+            PGProperties scratch = new PGProperties(defaults);
+            if(source != null) {
+                byte[] data = readIfChanged();
+                if((data == null) || !scratch.loadFromInputStream(new ByteArrayInputStream(data))) return;
             }
-            else {
-                restore(t);
+            else if(!loader.apply(scratch)) {
+                return;
             }
+            scratch.expandMacros(macros);
+
+            Map<String, Change> changes = swap(scratch);
+            if(!changes.isEmpty()) for(ChangeListener l : listeners) l.propertiesChanged(this, changes);
         }
         catch(Exception e) {
-            restore(t);
-            System.err.printf(msgs.getString("msg.err.prop_load_error"), e);
+            System.err.print(msgs.format("msg.err.prop_load_error", e));
         }
-        finally {
-            t.clear();
+    }
+
+    /**
+     * Called by the {@link Watcher} when the source file changes. Editors often write a file in several steps so the reload waits until the file has been
+     * quiet for a moment.
+     */
+    private void scheduleReload() {
+        synchronized(reloadLock) {
+            if(reloadTask == null) return;
+            if(pendingReload != null) pendingReload.cancel(false);
+            pendingReload = Reloader.SCHEDULER.schedule(this::reload, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
         }
     }
 
-    private void restore(Map<Object, Object> t) {
-        clear();
-        putAll(t);
+    /**
+     * Replaces the contents of this instance with the contents of the scratch instance. The table is changed through {@code super} and the views so that the
+     * old snapshot stays valid, and keeps being served to readers, until the new one is published at the very end. Nothing is touched if no property actually
+     * changed.
+     *
+     * @return The properties that were added, removed or changed.
+     */
+    private synchronized @NotNull Map<String, Change> swap(@NotNull PGProperties scratch) {
+        Map<String, String> oldValues = getSnapshot().values;
+        Map<String, String> newValues = scratch.getSnapshot().values;
+        Map<String, Change> changes   = new LinkedHashMap<>();
+
+        newValues.forEach((k, v) -> { String o = oldValues.get(k); if(!v.equals(o)) changes.put(k, new Change(k, o, v)); });
+        oldValues.forEach((k, o) -> { if(!newValues.containsKey(k)) changes.put(k, new Change(k, o, null)); });
+        macros = scratch.macros;
+        if(changes.isEmpty()) return Collections.emptyMap();
+
+        keySet().retainAll(scratch.keySet());
+        super.putAll(scratch);
+        long v = (version + 1);
+        snapshot = new Snapshot(v, newValues);
+        version  = v;
+        return Collections.unmodifiableMap(changes);
+    }
+
+    private synchronized @NotNull Snapshot takeSnapshot() {
+        Snapshot s = snapshot;
+        if((s == null) || (s.version != version)) {
+            Map<String, String> values = new HashMap<>();
+            for(Entry<Object, Object> e : entrySet()) if(isStringEntry(e)) values.put((String)e.getKey(), (String)e.getValue());
+            snapshot  = s = new Snapshot(version, Map.copyOf(values));
+            liveReads = 0;
+        }
+        return s;
     }
 
     /**
@@ -205,11 +553,11 @@ public class PGProperties extends Properties {
      * @return A new instance of PGProperties.
      */
     public static @NotNull PGProperties getProperties(@NotNull Function<PGProperties, Boolean> loader, long reloadPeriod, TimeUnit timeUnit, Properties defaults) {
-        return new PGProperties(loader, reloadPeriod, timeUnit, defaults);
+        return new PGProperties(loader, reloadPeriod, timeUnit, defaults, null);
     }
 
     public static @NotNull PGProperties getProperties(InputStream inputStream, Properties defaults) {
-        return new PGProperties(p -> _getProperties(inputStream, p), -1, null, defaults);
+        return new PGProperties(p -> _getProperties(inputStream, p), -1, null, defaults, null);
     }
 
     public static @NotNull PGProperties getProperties(InputStream inputStream) {
@@ -217,7 +565,7 @@ public class PGProperties extends Properties {
     }
 
     public static @NotNull PGProperties getProperties(@NotNull File file, long reloadPeriod, TimeUnit timeUnit, Properties defaults) {
-        return new PGProperties(p -> p.loadFromInputStream(getInputStream(file)), reloadPeriod, timeUnit, defaults);
+        return new PGProperties(p -> p.loadFromInputStream(getInputStream(file)), reloadPeriod, timeUnit, defaults, file.toPath());
     }
 
     public static @NotNull PGProperties getProperties(@NotNull File file, long reloadPeriod, TimeUnit timeUnit) {
@@ -233,7 +581,7 @@ public class PGProperties extends Properties {
     }
 
     public static @NotNull PGProperties getProperties(@NotNull @NonNls String name, @NotNull Class<?> refClass, long reloadPeriod, TimeUnit timeUnit, Properties defaults) {
-        return new PGProperties(p -> p.loadFromInputStream(getInputStream(name, refClass)), reloadPeriod, timeUnit, defaults);
+        return new PGProperties(p -> p.loadFromInputStream(getInputStream(name, refClass)), reloadPeriod, timeUnit, defaults, getResourcePath(name, refClass));
     }
 
     public static @NotNull PGProperties getProperties(@NotNull @NonNls String name, @NotNull Class<?> refClass, long reloadPeriod, TimeUnit timeUnit) {
@@ -255,10 +603,166 @@ public class PGProperties extends Properties {
     }
 
     private static @NotNull InputStream getInputStream(@NotNull @NonNls String name, @NotNull Class<?> refClass) {
-        return requireNonNull(refClass.getResourceAsStream(name), () -> msgs.getString("msg.err.rsrc_not_found").formatted(name));
+        return requireNonNull(refClass.getResourceAsStream(name), () -> msgs.format("msg.err.rsrc_not_found", name));
     }
 
     private static @NotNull InputStream getInputStream(@NotNull File file) {
         try { return new FileInputStream(file); } catch(IOException e) { throw new RuntimeException(e.toString(), e); }
     }
+
+    /**
+     * @return The path of the resource if it is a plain file that can be watched, or {@code null} if it is inside a jar or somewhere else.
+     */
+    private static @Nullable Path getResourcePath(@NotNull @NonNls String name, @NotNull Class<?> refClass) {
+        URL url = refClass.getResource(name);
+        if((url == null) || !"file".equals(url.getProtocol())) return null;
+        try { return Path.of(url.toURI()); } catch(URISyntaxException | IllegalArgumentException e) { return null; }
+    }
+
+    /**
+     * Receives the properties that a reload added, removed or changed.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * @param properties The properties that were reloaded.
+         * @param changes    The changes, by key. Unchanged properties are not included.
+         */
+        void propertiesChanged(@NotNull PGProperties properties, @NotNull Map<String, Change> changes);
+    }
+
+    /**
+     * One property that a reload changed.
+     *
+     * @param key      The key.
+     * @param oldValue The value before the reload or {@code null} if the property was added.
+     * @param newValue The value after the reload or {@code null} if the property was removed.
+     */
+    public record Change(@NotNull String key, @Nullable String oldValue, @Nullable String newValue) { }
+
+    private enum Kind {
+        BOOLEAN(PropertyValues::parseBoolean), BYTE(PropertyValues::parseByte), DOUBLE(PropertyValues::parseDouble), DURATION(PropertyValues::parseDuration),
+        FLOAT(PropertyValues::parseFloat), INT(PropertyValues::parseInt), LONG(PropertyValues::parseLong), SHORT(PropertyValues::parseShort),
+        SIZE(PropertyValues::parseSize);
+
+        private final Function<String, Object> parser;
+
+        Kind(@NotNull Function<String, Object> parser) {
+            this.parser = parser;
+        }
+    }
+
+    /**
+     * @param version The version of the table this snapshot was taken from.
+     * @param values  The string properties.
+     * @param parsed  The typed values parsed so far, one map for each {@link Kind}. {@link #INVALID} marks a value that is missing or could not be parsed.
+     * @param enums   The enum values parsed so far, one map for each enum type, since the same property can be read as more than one type.
+     */
+    private record Snapshot(long version, @NotNull Map<String, String> values, @NotNull List<Map<String, Object>> parsed, @NotNull ConcurrentHashMap<Class<?>, Map<String, Object>> enums) {
+        private Snapshot(long version, @NotNull Map<String, String> values) {
+            this(version, values, Arrays.stream(Kind.values()).<Map<String, Object>>map(k -> new ConcurrentHashMap<>()).toList(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Holds the one daemon thread that every instance reloads on. It is only created when the first reloading instance is.
+     */
+    private static final class Reloader {
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "PGProperties-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * One {@link WatchService}, with one daemon thread, for the directories of every watched file. If the platform cannot watch files the periodic reload
+     * still works. The instances watching a file are kept by identity, not by {@code equals}, because two instances loaded from the same file have equal
+     * contents. They are only touched while holding the watcher's monitor.
+     */
+    private static final class Watcher implements Runnable {
+        private static final Watcher INSTANCE = new Watcher();
+
+        private final @Nullable WatchService                 service;
+        private final           Map<Path, Set<PGProperties>> files = new HashMap<>();
+        private final           Map<Path, WatchKey>          keys  = new HashMap<>();
+
+        private Watcher() {
+            WatchService ws = null;
+            try {
+                ws = FileSystems.getDefault().newWatchService();
+            }
+            catch(IOException | UnsupportedOperationException e) {
+                System.err.print(msgs.format("msg.err.prop_watch_error", e));
+            }
+            this.service = ws;
+
+            if(ws != null) {
+                Thread t = new Thread(this, "PGProperties-watcher");
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+
+        public @Override void run() {
+            while(true) {
+                WatchKey key;
+                try { key = requireNonNull(service).take(); }
+                catch(InterruptedException | ClosedWatchServiceException e) { return; }
+
+                Path dir = (Path)key.watchable();
+                synchronized(this) {
+                    for(WatchEvent<?> event : key.pollEvents()) {
+                        if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            files.forEach((file, props) -> { if(file.startsWith(dir)) props.forEach(PGProperties::scheduleReload); });
+                        }
+                        else {
+                            Set<PGProperties> props = files.get(dir.resolve((Path)event.context()));
+                            if(props != null) props.forEach(PGProperties::scheduleReload);
+                        }
+                    }
+                    if(!key.reset()) keys.remove(dir, key);
+                }
+            }
+        }
+
+        private static void register(@NotNull Path file, @NotNull PGProperties props) {
+            Watcher w = INSTANCE;
+            if(w.service == null) return;
+            Path abs = file.toAbsolutePath().normalize();
+            Path dir = abs.getParent();
+            if(dir == null) return;
+            synchronized(w) {
+                try {
+                    if(!w.keys.containsKey(dir)) {
+                        w.keys.put(dir, dir.register(w.service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+                    }
+                    w.files.computeIfAbsent(abs, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(props);
+                }
+                catch(IOException | UnsupportedOperationException e) {
+                    System.err.print(msgs.format("msg.err.prop_watch_error", e));
+                }
+            }
+        }
+
+        private static void unregister(@NotNull Path file, @NotNull PGProperties props) {
+            Watcher w = INSTANCE;
+            if(w.service == null) return;
+            Path abs = file.toAbsolutePath().normalize();
+            Path dir = abs.getParent();
+            synchronized(w) {
+                Set<PGProperties> set = w.files.get(abs);
+                if((set == null) || !set.remove(props) || !set.isEmpty()) return;
+                w.files.remove(abs);
+                if(w.files.keySet().stream().noneMatch(f -> dir.equals(f.getParent()))) {
+                    WatchKey key = w.keys.remove(dir);
+                    if(key != null) key.cancel();
+                }
+            }
+        }
+    }
 }
@@ -17,16 +17,29 @@ package com.projectgalen.lib.utils;
 // NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ================================================================================================================================
 
-import com.projectgalen.lib.utils.text.Macros;
+import com.projectgalen.lib.utils.text.MacroTemplate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static java.util.Optional.ofNullable;
+
+/**
+ * A {@link ResourceBundle} that expands <code>${name}</code> macros in its messages, using the other messages in the bundle, and caches the results. The caches
+ * are lock-free so looking a message up from many threads at once never contends. {@link #preload()} fills the cache up front.
+ * <p>
+ * {@link #format(String, Object...)} formats a message the same way {@code getString(key).formatted(args)} does but parses each message only once. Messages
+ * that only use {@code %s}, {@code %n} and {@code %%} are then formatted by simply joining the pieces together. Any other conversion is handed to
+ * {@link String#format(String, Object...)}.
+ */
 @SuppressWarnings("unused")
 public class PGResourceBundle extends ResourceBundle {
 
-    private final Map<String, String> cache = Collections.synchronizedMap(new TreeMap<>());
-    private final ResourceBundle      bundle;
+    private final ConcurrentHashMap<String, String>         cache   = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompiledFormat> formats = new ConcurrentHashMap<>();
+    private final ResourceBundle                            bundle;
 
     public PGResourceBundle(@NotNull String baseName) {
         bundle = ResourceBundle.getBundle(baseName);
@@ -56,6 +69,25 @@ public class PGResourceBundle extends ResourceBundle {
         bundle = ResourceBundle.getBundle(baseName, targetLocale, loader, control);
     }
 
+    /**
+     * Formats the message for the given key with the given arguments. The result is the same as {@code getString(key).formatted(args)}.
+     *
+     * @param key  The key of the message.
+     * @param args The arguments.
+     *
+     * @return The formatted message.
+     *
+     * @throws MissingResourceException If there is no message for the given key.
+     */
+    public @NotNull String format(@NotNull String key, Object... args) {
+        CompiledFormat f = formats.get(key);
+        if(f == null) {
+            CompiledFormat nf = CompiledFormat.compile(getString(key));
+            f = ofNullable(formats.putIfAbsent(key, nf)).orElse(nf);
+        }
+        return f.format(args);
+    }
+
     /**
      * Returns an enumeration of the keys.
      *
@@ -65,6 +97,16 @@ public class PGResourceBundle extends ResourceBundle {
         return bundle.getKeys();
     }
 
+    /**
+     * Expands, and caches, every message in the bundle now rather than the first time each one is asked for.
+     *
+     * @return This bundle.
+     */
+    public @NotNull PGResourceBundle preload() {
+        for(String key : bundle.keySet()) handleGetObject(key);
+        return this;
+    }
+
     /**
      * Gets an object for the given key from this resource bundle. Returns null if this resource bundle does not contain an object for the given key.
      *
@@ -75,10 +117,83 @@ public class PGResourceBundle extends ResourceBundle {
      * @throws NullPointerException if {@code key} is {@code null}
      */
     protected @Override Object handleGetObject(@NotNull String key) {
-        return _getObject(key).map(v -> cache.computeIfAbsent(key, __ -> Macros.expand(v, this::_getObject))).orElse(null);
+        String value = cache.get(key);
+        if(value == null) {
+            Optional<String> raw = _getObject(key);
+            if(raw.isEmpty()) return null;
+            String expanded = MacroTemplate.compile(raw.get()).expand(this::_getObject);
+            value = ofNullable(cache.putIfAbsent(key, expanded)).orElse(expanded);
+        }
+        return value;
     }
 
     private @NotNull Optional<String> _getObject(@NotNull String key) {
         try { return Optional.of(bundle.getString(key)); } catch(MissingResourceException e) { return Optional.empty(); }
     }
+
+    /**
+     * A format string that has been split once into literal text and {@code %s} arguments. If the format string uses anything else it is simply kept and
+     * passed to {@link String#format(String, Object...)}.
+     */
+    private static final class CompiledFormat {
+        private static final Object ARG = new Object();
+
+        private final @NotNull String              pattern;
+        private final          Object @Nullable [] segments;
+        private final          int                 argCount;
+        private final          int                 literalLength;
+
+        private CompiledFormat(@NotNull String pattern, Object @Nullable [] segments, int argCount, int literalLength) {
+            this.pattern       = pattern;
+            this.segments      = segments;
+            this.argCount      = argCount;
+            this.literalLength = literalLength;
+        }
+
+        private @NotNull String format(Object @Nullable ... args) {
+            if((segments == null) || (args == null) || (args.length < argCount)) return String.format(pattern, args);
+            for(int i = 0; i < argCount; i++) if(args[i] instanceof Formattable) return String.format(pattern, args);
+
+            StringBuilder sb = new StringBuilder(literalLength + (argCount * 16));
+            int           a  = 0;
+            for(Object o : segments) sb.append((o == ARG) ? String.valueOf(args[a++]) : (String)o);
+            return sb.toString();
+        }
+
+        private static @NotNull CompiledFormat compile(@NotNull String pattern) {
+            List<Object>  segments = new ArrayList<>();
+            StringBuilder literal  = new StringBuilder(pattern.length());
+            int           argCount = 0;
+            int           litLen   = 0;
+
+            for(int i = 0, j = pattern.length(); i < j; i++) {
+                char ch = pattern.charAt(i);
+                if(ch != '%') {
+                    literal.append(ch);
+                    continue;
+                }
+                if(++i == j) return new CompiledFormat(pattern, null, 0, 0);
+                switch(pattern.charAt(i)) {
+                    case '%' -> literal.append('%');
+                    case 'n' -> literal.append(System.lineSeparator());
+                    case 's' -> {
+                        if(!literal.isEmpty()) {
+                            litLen += literal.length();
+                            segments.add(literal.toString());
+                            literal.setLength(0);
+                        }
+                        segments.add(ARG);
+                        argCount++;
+                    }
+                    default -> { return new CompiledFormat(pattern, null, 0, 0); }
+                }
+            }
+
+            if(!literal.isEmpty()) {
+                litLen += literal.length();
+                segments.add(literal.toString());
+            }
+            return new CompiledFormat(pattern, segments.toArray(), argCount, litLen);
+        }
+    }
 }
@@ -0,0 +1,226 @@
+package com.projectgalen.lib.utils;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: PropertyValues.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Parsers for the typed getters of {@link PGProperties}. They read the {@link CharSequence} directly, ignore leading and trailing whitespace, and return
+ * {@code null} instead of throwing an exception when the text is not valid.
+ */
+final class PropertyValues {
+
+    private static final String[] SIZE_UNITS = { "", "k", "m", "g", "t", "p", "e" };
+
+    private PropertyValues() { }
+
+    static @Nullable Boolean parseBoolean(@NotNull CharSequence cs) {
+        String s = trim(cs);
+        return switch(s.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "on", "1" -> Boolean.TRUE;
+            case "false", "no", "off", "0" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    static @Nullable Byte parseByte(@NotNull CharSequence cs) {
+        Long v = parseLong(cs, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        return ((v == null) ? null : v.byteValue());
+    }
+
+    static @Nullable Double parseDouble(@NotNull CharSequence cs) {
+        String s = trim(cs);
+        return (isDecimal(s) ? Double.parseDouble(s) : null);
+    }
+
+    /**
+     * Parses either an ISO-8601 duration ("PT1H30M") or one or more numbers each followed by a unit ("1h30m", "250ms", "2 d"). The units are ns, us (or µs),
+     * ms, s, m, h and d, and their longer spellings. A number on its own is a number of milliseconds.
+     */
+    static @Nullable Duration parseDuration(@NotNull CharSequence cs) {
+        String s   = trim(cs);
+        int    len = s.length();
+        if(len == 0) return null;
+
+        char c = s.charAt(0);
+        if((c == 'P') || (c == 'p') || (((c == '-') || (c == '+')) && (len > 1) && ((s.charAt(1) == 'P') || (s.charAt(1) == 'p')))) {
+            try { return Duration.parse(s); }
+            catch(DateTimeParseException e) { return null; }
+        }
+
+        try {
+            Duration d = Duration.ZERO;
+            int      i = 0;
+            while(i < len) {
+                int j = i;
+                while((j < len) && isDigit(s.charAt(j))) j++;
+                if((j == i) || ((j - i) > 18)) return null;
+                long n = Long.parseLong(s, i, j, 10);
+                while((j < len) && Character.isWhitespace(s.charAt(j))) j++;
+                int k = j;
+                while((k < len) && Character.isLetter(s.charAt(k))) k++;
+                if((k == j) && (i == 0) && (k == len)) return Duration.ofMillis(n);
+                ChronoUnit unit = durationUnit(s.substring(j, k));
+                if(unit == null) return null;
+                d = d.plus(n, unit);
+                for(i = k; (i < len) && Character.isWhitespace(s.charAt(i)); ) i++;
+            }
+            return d;
+        }
+        catch(ArithmeticException e) {
+            return null;
+        }
+    }
+
+    static <E extends Enum<E>> @Nullable E parseEnum(@NotNull CharSequence cs, @NotNull Class<E> type) {
+        String s         = trim(cs);
+        E[]    constants = type.getEnumConstants();
+        for(E e : constants) if(e.name().equals(s)) return e;
+        for(E e : constants) if(e.name().equalsIgnoreCase(s)) return e;
+        return null;
+    }
+
+    static @Nullable Float parseFloat(@NotNull CharSequence cs) {
+        String s = trim(cs);
+        return (isDecimal(s) ? Float.parseFloat(s) : null);
+    }
+
+    static @Nullable Integer parseInt(@NotNull CharSequence cs) {
+        Long v = parseLong(cs, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return ((v == null) ? null : v.intValue());
+    }
+
+    static @Nullable Long parseLong(@NotNull CharSequence cs) {
+        return parseLong(cs, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    static @Nullable Short parseShort(@NotNull CharSequence cs) {
+        Long v = parseLong(cs, Short.MIN_VALUE, Short.MAX_VALUE);
+        return ((v == null) ? null : v.shortValue());
+    }
+
+    /**
+     * Parses a whole number of bytes followed by an optional unit: B, K, M, G, T, P or E, optionally followed by "B" or "iB" ("64MB", "512k", "2 GiB"). Every
+     * unit is a power of 1024.
+     */
+    static @Nullable Long parseSize(@NotNull CharSequence cs) {
+        String s   = trim(cs);
+        int    len = s.length();
+        int    j   = 0;
+        while((j < len) && isDigit(s.charAt(j))) j++;
+        if((j == 0) || (j > 18)) return null;
+
+        long n = Long.parseLong(s, 0, j, 10);
+        while((j < len) && Character.isWhitespace(s.charAt(j))) j++;
+        String unit = s.substring(j).toLowerCase(Locale.ROOT);
+
+        if(unit.endsWith("ib")) unit = unit.substring(0, unit.length() - 2);
+        else if(unit.endsWith("b")) unit = unit.substring(0, unit.length() - 1);
+        if((unit.length() == 0) && (j < len) && !s.substring(j).equalsIgnoreCase("b")) return null;
+
+        for(int i = 0; i < SIZE_UNITS.length; i++) {
+            if(SIZE_UNITS[i].equals(unit)) {
+                int shift = (i * 10);
+                return ((n > (Long.MAX_VALUE >> shift)) ? null : (n << shift));
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable ChronoUnit durationUnit(@NotNull String unit) {
+        return switch(unit.toLowerCase(Locale.ROOT)) {
+            case "ns", "nano", "nanos", "nanosecond", "nanoseconds" -> ChronoUnit.NANOS;
+            case "us", "µs", "micro", "micros", "microsecond", "microseconds" -> ChronoUnit.MICROS;
+            case "ms", "milli", "millis", "millisecond", "milliseconds" -> ChronoUnit.MILLIS;
+            case "s", "sec", "secs", "second", "seconds" -> ChronoUnit.SECONDS;
+            case "m", "min", "mins", "minute", "minutes" -> ChronoUnit.MINUTES;
+            case "h", "hr", "hrs", "hour", "hours" -> ChronoUnit.HOURS;
+            case "d", "day", "days" -> ChronoUnit.DAYS;
+            default -> null;
+        };
+    }
+
+    private static boolean isDecimal(@NotNull String s) {
+        int len = s.length();
+        int i   = 0;
+        if((i < len) && ((s.charAt(i) == '-') || (s.charAt(i) == '+'))) i++;
+        if(s.startsWith("NaN", i) || s.startsWith("Infinity", i)) return ((i + (s.startsWith("NaN", i) ? 3 : 8)) == len);
+
+        int digits = 0;
+        while((i < len) && isDigit(s.charAt(i))) { i++; digits++; }
+        if((i < len) && (s.charAt(i) == '.')) {
+            i++;
+            while((i < len) && isDigit(s.charAt(i))) { i++; digits++; }
+        }
+        if(digits == 0) return false;
+        if((i < len) && ((s.charAt(i) == 'e') || (s.charAt(i) == 'E'))) {
+            i++;
+            if((i < len) && ((s.charAt(i) == '-') || (s.charAt(i) == '+'))) i++;
+            int exp = i;
+            while((i < len) && isDigit(s.charAt(i))) i++;
+            if(i == exp) return false;
+        }
+        if((i < len) && ("fFdD".indexOf(s.charAt(i)) >= 0)) i++;
+        return (i == len);
+    }
+
+    private static boolean isDigit(char c) {
+        return ((c >= '0') && (c <= '9'));
+    }
+
+    /**
+     * Parses an optionally signed whole number, accumulating it as a negative number so that {@link Long#MIN_VALUE} can be represented, and checks the range.
+     */
+    private static @Nullable Long parseLong(@NotNull CharSequence cs, long min, long max) {
+        int i   = 0;
+        int end = cs.length();
+        while((i < end) && Character.isWhitespace(cs.charAt(i))) i++;
+        while((end > i) && Character.isWhitespace(cs.charAt(end - 1))) end--;
+        if(i == end) return null;
+
+        boolean neg = false;
+        char    c   = cs.charAt(i);
+        if((c == '-') || (c == '+')) {
+            neg = (c == '-');
+            if(++i == end) return null;
+        }
+
+        long limit   = (neg ? Long.MIN_VALUE : -Long.MAX_VALUE);
+        long multmin = (limit / 10);
+        long result  = 0;
+        while(i < end) {
+            int d = (cs.charAt(i++) - '0');
+            if((d < 0) || (d > 9) || (result < multmin)) return null;
+            result *= 10;
+            if(result < (limit + d)) return null;
+            result -= d;
+        }
+        long v = (neg ? result : -result);
+        return (((v < min) || (v > max)) ? null : v);
+    }
+
+    private static @NotNull String trim(@NotNull CharSequence cs) {
+        return cs.toString().strip();
+    }
+}
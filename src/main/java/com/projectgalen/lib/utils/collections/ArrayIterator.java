@@ -31,7 +31,7 @@ import java.util.NoSuchElementException;
 public class ArrayIterator<T> implements Markable<T[]>, Peekable<T>, Iterator<T> {
     private static final PGResourceBundle msgs = new PGResourceBundle("com.projectgalen.lib.utils.messages");
 
-    private final IntStack      marks = new IntStack(5);
+    private final IntArrayStack marks = new IntArrayStack(5);
     private final T @NotNull [] array;
     private       int           idx   = 0;
 
@@ -0,0 +1,237 @@
+package com.projectgalen.lib.utils.collections;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: BooleanArrayList.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.functions.primitives.consumers.BooleanConsumer;
+import com.projectgalen.lib.utils.functions.primitives.predicates.BooleanPredicate;
+import com.projectgalen.lib.utils.functions.primitives.x2y.BooleanUnaryOperator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A growable list of {@code boolean} values backed by an array. Unlike {@code XArrayList<Boolean>} the values are not boxed so the list takes a fraction
+ * of the memory and creates no garbage as it is used. Values are compared the same way {@link Boolean#equals(Object)} compares them. This class is
+ * NOT thread-safe.
+ */
+@SuppressWarnings("unused")
+public class BooleanArrayList {
+    protected static final int DEFAULT_CAPACITY = 10;
+
+    private boolean[] data;
+    private int       size;
+
+    public BooleanArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BooleanArrayList(int initialCapacity) {
+        if(initialCapacity < 0) throw new IllegalArgumentException("Initial capacity cannot be less than 0: %d < 0".formatted(initialCapacity));
+        this.data = new boolean[initialCapacity];
+        this.size = 0;
+    }
+
+    public BooleanArrayList(@NotNull BooleanArrayList other) {
+        this.data = Arrays.copyOf(other.data, other.size);
+        this.size = other.size;
+    }
+
+    public boolean add(boolean value) {
+        if(size == data.length) grow(1);
+        data[size++] = value;
+        return true;
+    }
+
+    public void add(int index, boolean value) {
+        Objects.checkIndex(index, (size + 1));
+        if(size == data.length) grow(1);
+        System.arraycopy(data, index, data, (index + 1), (size - index));
+        data[index] = value;
+        ++size;
+    }
+
+    public boolean addAll(boolean @NotNull [] values) {
+        return addAll(values, 0, values.length);
+    }
+
+    public boolean addAll(boolean @NotNull [] values, int startingIndex, int length) {
+        Objects.checkFromIndexSize(startingIndex, length, values.length);
+        if((data.length - size) < length) grow(length);
+        System.arraycopy(values, startingIndex, data, size, length);
+        size += length;
+        return (length > 0);
+    }
+
+    public boolean addAll(@NotNull BooleanArrayList other) {
+        return addAll(other.data, 0, other.size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(boolean value) {
+        return (indexOf(value) >= 0);
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if(minCapacity > data.length) grow(minCapacity - size);
+    }
+
+    public @Override boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof BooleanArrayList other) || (size != other.size)) return false;
+        for(int i = 0; i < size; ++i) if(!same(data[i], other.data[i])) return false;
+        return true;
+    }
+
+    public void forEach(@NotNull BooleanConsumer action) {
+        for(int i = 0, j = size; i < j; ++i) action.accept(data[i]);
+    }
+
+    public boolean get(int index) {
+        Objects.checkIndex(index, size);
+        return data[index];
+    }
+
+    public @Override int hashCode() {
+        int h = 1;
+        for(int i = 0; i < size; ++i) h = ((31 * h) + Boolean.hashCode(data[i]));
+        return h;
+    }
+
+    public int indexOf(boolean value) {
+        for(int i = 0; i < size; ++i) if(same(data[i], value)) return i;
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size > 0);
+    }
+
+    public int lastIndexOf(boolean value) {
+        for(int i = (size - 1); i >= 0; --i) if(same(data[i], value)) return i;
+        return -1;
+    }
+
+    /**
+     * Removes the value at the given index.
+     *
+     * @param index The index of the value to remove.
+     *
+     * @return The value that was removed.
+     */
+    public boolean removeAt(int index) {
+        Objects.checkIndex(index, size);
+        boolean value = data[index];
+        System.arraycopy(data, (index + 1), data, index, (size - index - 1));
+        --size;
+        return value;
+    }
+
+    /**
+     * Removes every value that satisfies the given predicate. The remaining values are compacted in a single pass.
+     *
+     * @param filter The predicate.
+     *
+     * @return {@code true} if any values were removed.
+     */
+    public boolean removeIf(@NotNull BooleanPredicate filter) {
+        int j = 0;
+        for(int i = 0; i < size; ++i) {
+            boolean value = data[i];
+            if(!filter.test(value)) data[j++] = value;
+        }
+        boolean removed = (j < size);
+        size = j;
+        return removed;
+    }
+
+    public void removeRange(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        System.arraycopy(data, toIndex, data, fromIndex, (size - toIndex));
+        size -= (toIndex - fromIndex);
+    }
+
+    /**
+     * Removes the first occurrence of the given value.
+     *
+     * @param value The value to remove.
+     *
+     * @return {@code true} if the value was found and removed.
+     */
+    public boolean removeValue(boolean value) {
+        int i = indexOf(value);
+        if(i < 0) return false;
+        removeAt(i);
+        return true;
+    }
+
+    public void replaceAll(@NotNull BooleanUnaryOperator operator) {
+        for(int i = 0, j = size; i < j; ++i) data[i] = operator.applyAsBoolean(data[i]);
+    }
+
+    public boolean set(int index, boolean value) {
+        Objects.checkIndex(index, size);
+        boolean old = data[index];
+        data[index] = value;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean @NotNull [] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public @Override @NotNull String toString() {
+        if(size == 0) return "[]";
+        StringBuilder sb = new StringBuilder().append('[').append(data[0]);
+        for(int i = 1; i < size; ++i) sb.append(", ").append(data[i]);
+        return sb.append(']').toString();
+    }
+
+    public void trimToSize() {
+        if(size < data.length) data = Arrays.copyOf(data, size);
+    }
+
+    private void grow(int count) {
+        int needed = (size + count);
+        if(needed < 0) throw new OutOfMemoryError("List is too large.");
+        int cap = Math.max(data.length, DEFAULT_CAPACITY);
+        while(cap < needed) cap = ((cap > (Integer.MAX_VALUE / 2)) ? needed : (cap + (cap >> 1) + 1));
+        data = Arrays.copyOf(data, cap);
+    }
+
+    public static @NotNull BooleanArrayList of(boolean @NotNull ... values) {
+        BooleanArrayList list = new BooleanArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    private static boolean same(boolean a, boolean b) {
+        return (Boolean.compare(a, b) == 0);
+    }
+}
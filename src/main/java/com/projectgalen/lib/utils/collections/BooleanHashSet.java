@@ -0,0 +1,257 @@
+package com.projectgalen.lib.utils.collections;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: BooleanHashSet.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.functions.primitives.consumers.BooleanConsumer;
+import com.projectgalen.lib.utils.functions.primitives.predicates.BooleanPredicate;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@code boolean} values stored in an open-addressing hash table. Unlike {@code HashSet<Boolean>} the values are not boxed and there are no
+ * entry objects, so the set takes a fraction of the memory. Collisions are resolved by linear probing and removals use backward-shift deletion so the table
+ * never fills up with tombstones. Values are compared the same way {@link Boolean#equals(Object)} compares them. This class is NOT thread-safe.
+ */
+@SuppressWarnings("unused")
+public class BooleanHashSet {
+    public static final    float   DEFAULT_LOAD_FACTOR = 0.75f;
+    protected static final int     DEFAULT_CAPACITY    = 16;
+    private static final   boolean FREE                = false;
+
+    private final float     loadFactor;
+    private       boolean[] keys;
+    private       int       mask;
+    private       int       maxFill;
+    private       int       assigned;
+    private       boolean   hasFree;
+
+    public BooleanHashSet() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public BooleanHashSet(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public BooleanHashSet(int expectedSize, float loadFactor) {
+        if(expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be less than 0: %d < 0".formatted(expectedSize));
+        if(!((loadFactor > 0) && (loadFactor < 1))) throw new IllegalArgumentException("Load factor must be greater than 0 and less than 1: %f".formatted(loadFactor));
+        this.loadFactor = loadFactor;
+        allocate(tableSize(expectedSize, loadFactor));
+    }
+
+    public boolean add(boolean value) {
+        if(isFree(value)) {
+            if(hasFree) return false;
+            return (hasFree = true);
+        }
+        int i = slot(value);
+        for(boolean k = keys[i]; !isFree(k); k = keys[i]) {
+            if(same(k, value)) return false;
+            i = ((i + 1) & mask);
+        }
+        keys[i] = value;
+        if(++assigned >= maxFill) rehash(keys.length * 2);
+        return true;
+    }
+
+    public boolean addAll(boolean @NotNull ... values) {
+        boolean changed = false;
+        for(boolean value : values) changed |= add(value);
+        return changed;
+    }
+
+    public void clear() {
+        if(assigned > 0) Arrays.fill(keys, FREE);
+        assigned = 0;
+        hasFree  = false;
+    }
+
+    public boolean contains(boolean value) {
+        if(isFree(value)) return hasFree;
+        int i = slot(value);
+        for(boolean k = keys[i]; !isFree(k); k = keys[i]) {
+            if(same(k, value)) return true;
+            i = ((i + 1) & mask);
+        }
+        return false;
+    }
+
+    public @Override boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof BooleanHashSet other) || (size() != other.size()) || (hasFree != other.hasFree)) return false;
+        for(boolean k : keys) if(!isFree(k) && !other.contains(k)) return false;
+        return true;
+    }
+
+    public void forEach(@NotNull BooleanConsumer action) {
+        if(hasFree) action.accept(FREE);
+        for(boolean k : keys) if(!isFree(k)) action.accept(k);
+    }
+
+    public @Override int hashCode() {
+        int h = (hasFree ? Boolean.hashCode(FREE) : 0);
+        for(boolean k : keys) if(!isFree(k)) h += Boolean.hashCode(k);
+        return h;
+    }
+
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size() > 0);
+    }
+
+    public boolean remove(boolean value) {
+        if(isFree(value)) {
+            if(!hasFree) return false;
+            hasFree = false;
+            return true;
+        }
+        int i = slot(value);
+        for(boolean k = keys[i]; !isFree(k); k = keys[i]) {
+            if(same(k, value)) {
+                shiftKeys(i);
+                --assigned;
+                return true;
+            }
+            i = ((i + 1) & mask);
+        }
+        return false;
+    }
+
+    /**
+     * Removes every value that satisfies the given predicate. The predicate is called exactly once for each value.
+     *
+     * @param filter The predicate.
+     *
+     * @return {@code true} if any values were removed.
+     */
+    public boolean removeIf(@NotNull BooleanPredicate filter) {
+        boolean removed = false;
+        if(hasFree && filter.test(FREE)) {
+            hasFree = false;
+            removed = true;
+        }
+
+        long[] hits = null;
+        for(int i = 0; i < keys.length; ++i) {
+            boolean k = keys[i];
+            if(!isFree(k) && filter.test(k)) {
+                if(hits == null) hits = new long[(keys.length + 63) >>> 6];
+                hits[i >>> 6] |= (1L << i);
+            }
+        }
+        if(hits == null) return removed;
+
+        // Rebuilding is simpler and cheaper than backward-shifting while iterating, which could move a value the predicate has already seen.
+        boolean[] old = keys;
+        allocate(old.length);
+        for(int i = 0; i < old.length; ++i) if(!isFree(old[i]) && ((hits[i >>> 6] & (1L << i)) == 0)) insert(old[i]);
+        return true;
+    }
+
+    public int size() {
+        return (assigned + (hasFree ? 1 : 0));
+    }
+
+    public boolean @NotNull [] toArray() {
+        boolean[] a = new boolean[size()];
+        int       j = 0;
+        if(hasFree) a[j++] = FREE;
+        for(boolean k : keys) if(!isFree(k)) a[j++] = k;
+        return a;
+    }
+
+    public @Override @NotNull String toString() {
+        StringBuilder sb = new StringBuilder().append('[');
+        forEach(k -> sb.append((sb.length() == 1) ? "" : ", ").append(k));
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Shrinks the table to the smallest size that holds the current values without exceeding the load factor.
+     */
+    public void trimToSize() {
+        int n = tableSize(assigned, loadFactor);
+        if(n < keys.length) rehash(n);
+    }
+
+    private void allocate(int capacity) {
+        keys     = new boolean[capacity];
+        mask     = (capacity - 1);
+        maxFill  = Math.min((int)Math.ceil(capacity * loadFactor), (capacity - 1));
+        assigned = 0;
+    }
+
+    private void insert(boolean value) {
+        int i = slot(value);
+        while(!isFree(keys[i])) i = ((i + 1) & mask);
+        keys[i] = value;
+        ++assigned;
+    }
+
+    private void rehash(int capacity) {
+        boolean[] old = keys;
+        allocate(capacity);
+        for(boolean k : old) if(!isFree(k)) insert(k);
+    }
+
+    private void shiftKeys(int pos) {
+        for(;;) {
+            int last = pos;
+            boolean k;
+            for(;;) {
+                pos = ((pos + 1) & mask);
+                k   = keys[pos];
+                if(isFree(k)) {
+                    keys[last] = FREE;
+                    return;
+                }
+                int s = slot(k);
+                if((last <= pos) ? ((last >= s) || (s > pos)) : ((last >= s) && (s > pos))) break;
+            }
+            keys[last] = k;
+        }
+    }
+
+    private int slot(boolean value) {
+        return (mix(Boolean.hashCode(value)) & mask);
+    }
+
+    private static boolean isFree(boolean value) {
+        return (Boolean.compare(value, FREE) == 0);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16));
+    }
+
+    private static boolean same(boolean a, boolean b) {
+        return (Boolean.compare(a, b) == 0);
+    }
+
+    private static int tableSize(int expectedSize, float loadFactor) {
+        long n = Math.max(2, (long)Math.ceil(expectedSize / (double)loadFactor) + 1);
+        if(n > (1 << 30)) throw new IllegalArgumentException("Expected size is too large: %d".formatted(expectedSize));
+        return Integer.highestOneBit((int)(n - 1)) << 1;
+    }
+}
@@ -0,0 +1,346 @@
+package com.projectgalen.lib.utils.collections;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: ByteObjectHashMap.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.functions.primitives.consumers.ObjByteConsumer;
+import com.projectgalen.lib.utils.functions.primitives.predicates.BytePredicate;
+import com.projectgalen.lib.utils.functions.primitives.xtoobj.ByteFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A map from {@code byte} keys to object values stored in an open-addressing hash table. Unlike {@code HashMap<Byte, V>} the keys are not boxed and
+ * there are no entry objects, so the map takes a fraction of the memory. Collisions are resolved by linear probing and removals use backward-shift deletion so
+ * the table never fills up with tombstones. Keys are compared the same way {@link Byte#equals(Object)} compares them. Values may be
+ * {@code null}. This class is NOT thread-safe.
+ *
+ * @param <V> The type of the values.
+ */
+@SuppressWarnings({ "unused", "unchecked" })
+public class ByteObjectHashMap<V> {
+    public static final    float DEFAULT_LOAD_FACTOR = 0.75f;
+    protected static final int   DEFAULT_CAPACITY    = 16;
+    private static final   byte  FREE                = (byte)0;
+
+    private final float    loadFactor;
+    private       byte[]   keys;
+    private       Object[] values;
+    private       int      mask;
+    private       int      maxFill;
+    private       int      assigned;
+    private       boolean  hasFree;
+    private       V        freeValue;
+
+    public ByteObjectHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public ByteObjectHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public ByteObjectHashMap(int expectedSize, float loadFactor) {
+        if(expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be less than 0: %d < 0".formatted(expectedSize));
+        if(!((loadFactor > 0) && (loadFactor < 1))) throw new IllegalArgumentException("Load factor must be greater than 0 and less than 1: %f".formatted(loadFactor));
+        this.loadFactor = loadFactor;
+        allocate(tableSize(expectedSize, loadFactor));
+    }
+
+    public void clear() {
+        if(assigned > 0) {
+            Arrays.fill(keys, FREE);
+            Arrays.fill(values, null);
+        }
+        assigned  = 0;
+        hasFree   = false;
+        freeValue = null;
+    }
+
+    /**
+     * If the key is not already in the map, calls the mapping function and, if it returns a non-{@code null} value, stores it.
+     *
+     * @param key             The key.
+     * @param mappingFunction The function to compute the value.
+     *
+     * @return The current value associated with the key, or {@code null} if there is none.
+     */
+    public V computeIfAbsent(byte key, @NotNull ByteFunction<? extends V> mappingFunction) {
+        int i = find(key);
+        if(i != -1) {
+            V v = valueAt(i);
+            if(v != null) return v;
+        }
+        V v = mappingFunction.apply(key);
+        if(v != null) put(key, v);
+        return v;
+    }
+
+    public boolean containsKey(byte key) {
+        return (find(key) != -1);
+    }
+
+    public boolean containsValue(Object value) {
+        if(hasFree && Objects.equals(freeValue, value)) return true;
+        for(int i = 0; i < keys.length; ++i) if(!isFree(keys[i]) && Objects.equals(values[i], value)) return true;
+        return false;
+    }
+
+    public @Override boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof ByteObjectHashMap<?> other) || (size() != other.size())) return false;
+        if(hasFree && (!other.hasFree || !Objects.equals(freeValue, other.freeValue))) return false;
+        for(int i = 0; i < keys.length; ++i) {
+            byte k = keys[i];
+            if(!isFree(k)) {
+                int j = other.find(k);
+                if((j == -1) || !Objects.equals(values[i], other.valueAt(j))) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calls the given action for each entry in the map. Note that the action receives the value first and the key second.
+     *
+     * @param action The action.
+     */
+    public void forEach(@NotNull ObjByteConsumer<? super V> action) {
+        if(hasFree) action.accept(freeValue, FREE);
+        for(int i = 0; i < keys.length; ++i) if(!isFree(keys[i])) action.accept((V)values[i], keys[i]);
+    }
+
+    public @Nullable V get(byte key) {
+        int i = find(key);
+        return ((i == -1) ? null : valueAt(i));
+    }
+
+    public V getOrDefault(byte key, V defaultValue) {
+        int i = find(key);
+        return ((i == -1) ? defaultValue : valueAt(i));
+    }
+
+    public @Override int hashCode() {
+        int h = (hasFree ? (Byte.hashCode(FREE) ^ Objects.hashCode(freeValue)) : 0);
+        for(int i = 0; i < keys.length; ++i) if(!isFree(keys[i])) h += (Byte.hashCode(keys[i]) ^ Objects.hashCode(values[i]));
+        return h;
+    }
+
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size() > 0);
+    }
+
+    public byte @NotNull [] keys() {
+        byte[] a = new byte[size()];
+        int    j = 0;
+        if(hasFree) a[j++] = FREE;
+        for(byte k : keys) if(!isFree(k)) a[j++] = k;
+        return a;
+    }
+
+    public V put(byte key, V value) {
+        if(isFree(key)) {
+            V old = freeValue;
+            hasFree   = true;
+            freeValue = value;
+            return old;
+        }
+        int i = slot(key);
+        for(byte k = keys[i]; !isFree(k); k = keys[i]) {
+            if(same(k, key)) {
+                V old = (V)values[i];
+                values[i] = value;
+                return old;
+            }
+            i = ((i + 1) & mask);
+        }
+        keys[i]   = key;
+        values[i] = value;
+        if(++assigned >= maxFill) rehash(keys.length * 2);
+        return null;
+    }
+
+    public V putIfAbsent(byte key, V value) {
+        int i = find(key);
+        if(i != -1) {
+            V v = valueAt(i);
+            if(v != null) return v;
+        }
+        return put(key, value);
+    }
+
+    public V remove(byte key) {
+        if(isFree(key)) {
+            V old = freeValue;
+            hasFree   = false;
+            freeValue = null;
+            return old;
+        }
+        int i = slot(key);
+        for(byte k = keys[i]; !isFree(k); k = keys[i]) {
+            if(same(k, key)) {
+                V old = (V)values[i];
+                shiftKeys(i);
+                --assigned;
+                return old;
+            }
+            i = ((i + 1) & mask);
+        }
+        return null;
+    }
+
+    /**
+     * Removes every entry whose key satisfies the given predicate. The predicate is called exactly once for each key.
+     *
+     * @param filter The predicate.
+     *
+     * @return {@code true} if any entries were removed.
+     */
+    public boolean removeIf(@NotNull BytePredicate filter) {
+        boolean removed = false;
+        if(hasFree && filter.test(FREE)) {
+            hasFree   = false;
+            freeValue = null;
+            removed   = true;
+        }
+
+        long[] hits = null;
+        for(int i = 0; i < keys.length; ++i) {
+            byte k = keys[i];
+            if(!isFree(k) && filter.test(k)) {
+                if(hits == null) hits = new long[(keys.length + 63) >>> 6];
+                hits[i >>> 6] |= (1L << i);
+            }
+        }
+        if(hits == null) return removed;
+
+        // Rebuilding is simpler and cheaper than backward-shifting while iterating, which could move a key the predicate has already seen.
+        byte[]   oldKeys   = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length);
+        for(int i = 0; i < oldKeys.length; ++i) if(!isFree(oldKeys[i]) && ((hits[i >>> 6] & (1L << i)) == 0)) insert(oldKeys[i], oldValues[i]);
+        return true;
+    }
+
+    public int size() {
+        return (assigned + (hasFree ? 1 : 0));
+    }
+
+    public @Override @NotNull String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        forEach((v, k) -> sb.append((sb.length() == 1) ? "" : ", ").append(k).append('=').append((v == this) ? "(this Map)" : v));
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Shrinks the table to the smallest size that holds the current entries without exceeding the load factor.
+     */
+    public void trimToSize() {
+        int n = tableSize(assigned, loadFactor);
+        if(n < keys.length) rehash(n);
+    }
+
+    private void allocate(int capacity) {
+        keys     = new byte[capacity];
+        values   = new Object[capacity];
+        mask     = (capacity - 1);
+        maxFill  = Math.min((int)Math.ceil(capacity * loadFactor), (capacity - 1));
+        assigned = 0;
+    }
+
+    /**
+     * @return The index of the key in the table, {@code keys.length} for the free key, or -1 if the key is not in the map.
+     */
+    private int find(byte key) {
+        if(isFree(key)) return (hasFree ? keys.length : -1);
+        int i = slot(key);
+        for(byte k = keys[i]; !isFree(k); k = keys[i]) {
+            if(same(k, key)) return i;
+            i = ((i + 1) & mask);
+        }
+        return -1;
+    }
+
+    private void insert(byte key, Object value) {
+        int i = slot(key);
+        while(!isFree(keys[i])) i = ((i + 1) & mask);
+        keys[i]   = key;
+        values[i] = value;
+        ++assigned;
+    }
+
+    private void rehash(int capacity) {
+        byte[]   oldKeys   = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for(int i = 0; i < oldKeys.length; ++i) if(!isFree(oldKeys[i])) insert(oldKeys[i], oldValues[i]);
+    }
+
+    private void shiftKeys(int pos) {
+        for(;;) {
+            int last = pos;
+            byte k;
+            for(;;) {
+                pos = ((pos + 1) & mask);
+                k   = keys[pos];
+                if(isFree(k)) {
+                    keys[last]   = FREE;
+                    values[last] = null;
+                    return;
+                }
+                int s = slot(k);
+                if((last <= pos) ? ((last >= s) || (s > pos)) : ((last >= s) && (s > pos))) break;
+            }
+            keys[last]   = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private int slot(byte key) {
+        return (mix(Byte.hashCode(key)) & mask);
+    }
+
+    private V valueAt(int index) {
+        return ((index == keys.length) ? freeValue : (V)values[index]);
+    }
+
+    private static boolean isFree(byte key) {
+        return (Byte.compare(key, FREE) == 0);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16));
+    }
+
+    private static boolean same(byte a, byte b) {
+        return (Byte.compare(a, b) == 0);
+    }
+
+    private static int tableSize(int expectedSize, float loadFactor) {
+        long n = Math.max(2, (long)Math.ceil(expectedSize / (double)loadFactor) + 1);
+        if(n > (1 << 30)) throw new IllegalArgumentException("Expected size is too large: %d".formatted(expectedSize));
+        return Integer.highestOneBit((int)(n - 1)) << 1;
+    }
+}
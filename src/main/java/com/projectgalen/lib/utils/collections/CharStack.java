@@ -0,0 +1,98 @@
+package com.projectgalen.lib.utils.collections;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: CharStack.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe stack of {@code char} values backed by an array. Every operation holds a lock so, if the stack is only ever used by one thread, use
+ * {@link CharArrayStack} instead. If the stack is shared by many threads that mostly push and pop single values then {@link ConcurrentCharStack}
+ * will usually scale better.
+ */
+@SuppressWarnings("unused")
+public class CharStack extends CharArrayStack {
+    private final Object lock = new Object();
+
+    public CharStack() {
+        super();
+    }
+
+    public CharStack(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    public @Override void clear() {
+        synchronized(lock) {
+            super.clear();
+        }
+    }
+
+    public @Override boolean isEmpty() {
+        synchronized(lock) {
+            return super.isEmpty();
+        }
+    }
+
+    public @Override boolean isNotEmpty() {
+        synchronized(lock) {
+            return super.isNotEmpty();
+        }
+    }
+
+    public @Override char peek() {
+        synchronized(lock) {
+            return super.peek();
+        }
+    }
+
+    public @Override char pop() {
+        synchronized(lock) {
+            return super.pop();
+        }
+    }
+
+    public @Override int pop(char @NotNull [] array, int startingIndex, int length) {
+        synchronized(lock) {
+            return super.pop(array, startingIndex, length);
+        }
+    }
+
+    public @Override void push(char value) {
+        synchronized(lock) {
+            super.push(value);
+        }
+    }
+
+    public @Override void push(char @NotNull [] array, int startingIndex, int length) {
+        synchronized(lock) {
+            super.push(array, startingIndex, length);
+        }
+    }
+
+    public @Override int size() {
+        synchronized(lock) {
+            return super.size();
+        }
+    }
+
+    public @Override char @NotNull [] toArray() {
+        synchronized(lock) {
+            return super.toArray();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.projectgalen.lib.utils.collections;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: ConcurrentIntStack.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free, thread-safe stack of {@code int} values. This is a Treiber stack: every push or pop is a single compare-and-set of the head of a linked
+ * list so threads never block each other. Each node records the depth of the stack below it so {@code size()} is constant time. Pushing or popping several
+ * values at once is atomic: other threads either see all of them or none of them.
+ */
+@SuppressWarnings("unused")
+public class ConcurrentIntStack {
+    private final AtomicReference<Node> head = new AtomicReference<>();
+
+    public ConcurrentIntStack() { }
+
+    public void clear() {
+        head.set(null);
+    }
+
+    public boolean isEmpty() {
+        return (head.get() == null);
+    }
+
+    public boolean isNotEmpty() {
+        return (head.get() != null);
+    }
+
+    public int peek() {
+        Node h = head.get();
+        if(h == null) throw new NoSuchElementException("Stack is empty.");
+        return h.value;
+    }
+
+    public int pop() {
+        Node h;
+        do {
+            h = head.get();
+            if(h == null) throw new NoSuchElementException("Stack is empty.");
+        }
+        while(!head.compareAndSet(h, h.next));
+        return h.value;
+    }
+
+    /**
+     * Atomically pops up to {@code length} values off of the stack and stores them in {@code array} starting at {@code startingIndex}. The values are stored
+     * in the order they were pushed so the value that was on the top of the stack is stored last.
+     *
+     * @param array         The array to store the values in.
+     * @param startingIndex The index in the array to store the first value.
+     * @param length        The maximum number of values to pop.
+     *
+     * @return The number of values actually popped.
+     */
+    public int pop(int @NotNull [] array, int startingIndex, int length) {
+        Objects.checkFromIndexSize(startingIndex, length, array.length);
+        if(length == 0) return 0;
+
+        Node h;
+        Node t;
+        int  c;
+
+        do {
+            h = t = head.get();
+            for(c = 0; (t != null) && (c < length); ++c) t = t.next;
+        }
+        while(!head.compareAndSet(h, t));
+
+        for(int i = (startingIndex + c); h != t; h = h.next) array[--i] = h.value;
+        return c;
+    }
+
+    public void push(int value) {
+        Node n = new Node(value);
+        Node h;
+        do {
+            n.next = h = head.get();
+            n.size = ((h == null) ? 1 : (h.size + 1));
+        }
+        while(!head.compareAndSet(h, n));
+    }
+
+    public void push(int @NotNull [] values) {
+        push(values, 0, values.length);
+    }
+
+    /**
+     * Atomically pushes {@code length} values from {@code array} starting at {@code startingIndex}. The last value pushed ends up on the top of the stack.
+     *
+     * @param array         The array containing the values.
+     * @param startingIndex The index in the array of the first value to push.
+     * @param length        The number of values to push.
+     */
+    public void push(int @NotNull [] array, int startingIndex, int length) {
+        Objects.checkFromIndexSize(startingIndex, length, array.length);
+        if(length == 0) return;
+
+        Node top    = null;
+        Node bottom = null;
+
+        for(int i = startingIndex, j = (startingIndex + length); i < j; ++i) {
+            Node n = new Node(array[i]);
+            n.next = top;
+            top    = n;
+            if(bottom == null) bottom = n;
+        }
+
+        Node h;
+        do {
+            h           = head.get();
+            bottom.next = h;
+            int size = (((h == null) ? 0 : h.size) + length);
+            for(Node n = top; n != h; n = n.next) n.size = size--;
+        }
+        while(!head.compareAndSet(h, top));
+    }
+
+    public int size() {
+        Node h = head.get();
+        return ((h == null) ? 0 : h.size);
+    }
+
+    private static final class Node {
+        private final int  value;
+        private       Node next;
+        private       int  size;
+
+        private Node(int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.projectgalen.lib.utils.collections;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: IntArrayStack.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A stack of {@code int} values backed by an array. This class is NOT thread-safe. For a thread-safe stack use {@link IntStack} or
+ * {@link ConcurrentIntStack}.
+ * <p>
+ * The backing array grows by doubling but only shrinks by half once the stack is down to a quarter of the array's length. That way a stack whose size
+ * oscillates around a power of two does not reallocate the array on every push and pop. The array never shrinks below the initial capacity.
+ */
+@SuppressWarnings("unused")
+public class IntArrayStack {
+    protected static final int DEFAULT_CAPACITY = 16;
+
+    private       int[] stack;
+    private       int   top;
+    private final int   initialCapacity;
+
+    public IntArrayStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayStack(int initialCapacity) {
+        if(initialCapacity < 0) throw new IllegalArgumentException("Initial capacity cannot be less than 0: %d < 0".formatted(initialCapacity));
+        this.initialCapacity = initialCapacity;
+        this.stack           = new int[initialCapacity];
+        this.top             = 0;
+    }
+
+    public void clear() {
+        top = 0;
+        if(stack.length > initialCapacity) stack = new int[initialCapacity];
+    }
+
+    public boolean isEmpty() {
+        return (top == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (top > 0);
+    }
+
+    public int peek() {
+        if(top == 0) throw new NoSuchElementException("Stack is empty.");
+        return stack[top - 1];
+    }
+
+    public int pop() {
+        if(top == 0) throw new NoSuchElementException("Stack is empty.");
+        int value = stack[--top];
+        shrink();
+        return value;
+    }
+
+    /**
+     * Pops up to {@code length} values off of the stack and stores them in {@code array} starting at {@code startingIndex}. The values are stored in the
+     * order they were pushed so the value that was on the top of the stack is stored last.
+     *
+     * @param array         The array to store the values in.
+     * @param startingIndex The index in the array to store the first value.
+     * @param length        The maximum number of values to pop.
+     *
+     * @return The number of values actually popped.
+     */
+    public int pop(int @NotNull [] array, int startingIndex, int length) {
+        Objects.checkFromIndexSize(startingIndex, length, array.length);
+        length = Math.min(length, top);
+        System.arraycopy(stack, (top - length), array, startingIndex, length);
+        top -= length;
+        shrink();
+        return length;
+    }
+
+    public void push(int value) {
+        if(top == stack.length) grow(1);
+        stack[top++] = value;
+    }
+
+    public void push(int @NotNull [] values) {
+        push(values, 0, values.length);
+    }
+
+    public void push(int @NotNull [] array, int startingIndex, int length) {
+        Objects.checkFromIndexSize(startingIndex, length, array.length);
+        if((stack.length - top) < length) grow(length);
+        System.arraycopy(array, startingIndex, stack, top, length);
+        top += length;
+    }
+
+    public int size() {
+        return top;
+    }
+
+    /**
+     * @return The values on the stack in the order they were pushed.
+     */
+    public int @NotNull [] toArray() {
+        return Arrays.copyOf(stack, top);
+    }
+
+    private void grow(int count) {
+        int needed = (top + count);
+        if(needed < 0) throw new OutOfMemoryError("Stack is too large.");
+        int cap = Math.max(stack.length, DEFAULT_CAPACITY);
+        while(cap < needed) cap = ((cap > (Integer.MAX_VALUE / 2)) ? needed : (cap * 2));
+        stack = Arrays.copyOf(stack, cap);
+    }
+
+    private void shrink() {
+        int half = (stack.length / 2);
+        if((top <= (stack.length / 4)) && (half >= Math.max(initialCapacity, DEFAULT_CAPACITY))) stack = Arrays.copyOf(stack, half);
+    }
+}
@@ -19,95 +19,80 @@ package com.projectgalen.lib.utils.collections;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
-import java.util.NoSuchElementException;
-
+/**
+ * A thread-safe stack of {@code int} values backed by an array. Every operation holds a lock so, if the stack is only ever used by one thread, use
+ * {@link IntArrayStack} instead. If the stack is shared by many threads that mostly push and pop single values then {@link ConcurrentIntStack}
+ * will usually scale better.
+ */
 @SuppressWarnings("unused")
-public class IntStack {
-    private       int[]  stack;
-    private       int    top;
-    private final int    initialCapacity;
+public class IntStack extends IntArrayStack {
     private final Object lock = new Object();
 
+    public IntStack() {
+        super();
+    }
+
     public IntStack(int initialCapacity) {
-        if(initialCapacity < 0) throw new IllegalArgumentException("Initial capacity cannot be less than 0: %d < 0".formatted(initialCapacity));
-        this.initialCapacity = initialCapacity;
-        this.stack           = new int[initialCapacity];
-        this.top             = 0;
+        super(initialCapacity);
     }
 
-    public boolean isEmpty() {
+    public @Override void clear() {
         synchronized(lock) {
-            return (top == 0);
+            super.clear();
         }
     }
 
-    public boolean isNotEmpty() {
+    public @Override boolean isEmpty() {
         synchronized(lock) {
-            return (top > 0);
+            return super.isEmpty();
         }
     }
 
-    public int peek() {
+    public @Override boolean isNotEmpty() {
         synchronized(lock) {
-            if(top == 0) throw new NoSuchElementException("Stack is empty.");
-            return stack[top - 1];
+            return super.isNotEmpty();
         }
     }
 
-    public int pop() {
+    public @Override int peek() {
         synchronized(lock) {
-            if(top == 0) throw new NoSuchElementException("Stack is empty.");
-            try {
-                return stack[--top];
-            }
-            finally {
-                int lim = (stack.length / 2);
-                if((top <= lim) && (lim >= initialCapacity)) {
-                    stack = Arrays.copyOf(stack, lim);
-                }
-            }
+            return super.peek();
         }
     }
 
-    public int pop(int @NotNull [] array, int startingIndex, int length) {
-        if(startingIndex < 0 || length < 0 || startingIndex > array.length || length > (array.length - startingIndex)) throw new IndexOutOfBoundsException();
+    public @Override int pop() {
         synchronized(lock) {
-            length = Math.min(length, top);
-            System.arraycopy(stack, (top - length), array, startingIndex, length);
-            top -= length;
-            return length;
+            return super.pop();
         }
     }
 
-    public void push(int i) {
+    public @Override int pop(int @NotNull [] array, int startingIndex, int length) {
         synchronized(lock) {
-            if(top == stack.length) stack = ((stack.length == 0) ? new int[128] : Arrays.copyOf(stack, stack.length * 2));
-            stack[top++] = i;
+            return super.pop(array, startingIndex, length);
         }
     }
 
-    public void push(int @NotNull [] args) {
-        push(args, 0, args.length);
+    public @Override void push(int value) {
+        synchronized(lock) {
+            super.push(value);
+        }
+    }
+
+    public @Override void push(int @NotNull [] array, int startingIndex, int length) {
+        synchronized(lock) {
+            super.push(array, startingIndex, length);
+        }
     }
 
-    public void push(int @NotNull [] array, int startingIndex, int length) {
-        if(startingIndex < 0 || length < 0 || startingIndex > array.length || length > (array.length - startingIndex)) throw new IndexOutOfBoundsException();
+    public @Override int size() {
         synchronized(lock) {
-            int len = stack.length;
-            int lim = (len - top);
-            if(lim < length) {
-                do lim = ((len *= 2) - top); while(lim < length);
-                stack = Arrays.copyOf(stack, len);
-            }
-            System.arraycopy(array, startingIndex, stack, top, length);
-            top += length;
+            return super.size();
         }
     }
 
-    public int size() {
+    public @Override int @NotNull [] toArray() {
         synchronized(lock) {
-            return top;
+            return super.toArray();
         }
     }
 }
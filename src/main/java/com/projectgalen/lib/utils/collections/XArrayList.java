@@ -21,11 +21,17 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 
 @SuppressWarnings("unused")
 public class XArrayList<E> extends ArrayList<E> implements XList<E> {
+    /**
+     * Collections larger than this are copied into a {@link HashSet} before they are used for lookups so that bulk removals run in linear time.
+     */
+    private static final int HASH_LOOKUP_THRESHOLD = 16;
 
     public XArrayList() {
         super();
@@ -39,6 +45,12 @@ public class XArrayList<E> extends ArrayList<E> implements XList<E> {
         super(initialCapacity);
     }
 
+    public @Override @NotNull XArrayList<E> addAllWhen(@NotNull Collection<? extends E> c, @NotNull Predicate<? super E> predicate) {
+        ensureCapacity(size() + c.size());
+        for(E e : c) if(predicate.test(e)) add(e);
+        return this;
+    }
+
     public @Override @NotNull XArrayList<E> addIf(@NotNull E e, @NotNull BooleanSupplier predicate) {
         if(predicate.getAsBoolean()) add(e);
         return this;
@@ -54,6 +66,16 @@ public class XArrayList<E> extends ArrayList<E> implements XList<E> {
         return this;
     }
 
+    public @Override @NotNull XArrayList<E> insertAll(int index, @NotNull Collection<? extends E> c) {
+        addAll(index, c);
+        return this;
+    }
+
+    public @Override boolean removeAll(@NotNull Collection<?> c) {
+        Collection<?> lookup = getLookup(c);
+        return removeIf(lookup::contains);
+    }
+
     public @Override @NotNull XArrayList<E> removeAllIf(@NotNull Collection<? extends E> c, @NotNull BooleanSupplier predicate) {
         if(predicate.getAsBoolean()) removeAll(c);
         return this;
@@ -64,11 +86,21 @@ public class XArrayList<E> extends ArrayList<E> implements XList<E> {
         return this;
     }
 
+    public @Override @NotNull XArrayList<E> removeAllWhen(@NotNull Collection<?> c, @NotNull Predicate<? super E> predicate) {
+        Collection<?> lookup = getLookup(c);
+        removeIf(e -> (predicate.test(e) && lookup.contains(e)));
+        return this;
+    }
+
     public @Override @NotNull XArrayList<E> removeIf(@NotNull E e, @NotNull BooleanSupplier predicate) {
         if(predicate.getAsBoolean()) remove(e);
         return this;
     }
 
+    public @Override void removeRange(int fromIndex, int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+    }
+
     public @Override @NotNull XArrayList<E> removeThen(@NotNull E e) {
         remove(e);
         return this;
@@ -78,4 +110,19 @@ public class XArrayList<E> extends ArrayList<E> implements XList<E> {
         if(predicate.test(e)) remove(e);
         return this;
     }
+
+    public @Override boolean retainAll(@NotNull Collection<?> c) {
+        Collection<?> lookup = getLookup(c);
+        return removeIf(e -> !lookup.contains(e));
+    }
+
+    public @Override @NotNull XArrayList<E> retainAllWhen(@NotNull Collection<?> c, @NotNull Predicate<? super E> predicate) {
+        Collection<?> lookup = getLookup(c);
+        removeIf(e -> (predicate.test(e) && !lookup.contains(e)));
+        return this;
+    }
+
+    private static @NotNull Collection<?> getLookup(@NotNull Collection<?> c) {
+        return (((c instanceof Set<?>) || (c.size() <= HASH_LOOKUP_THRESHOLD)) ? c : new HashSet<>(c));
+    }
 }
@@ -28,19 +28,67 @@ import java.util.function.Predicate;
 @SuppressWarnings("unused")
 public interface XList<E> extends List<E>, SequencedCollection<E>, Collection<E>, Iterable<E> {
 
+    /**
+     * Appends every element of the given collection that satisfies the given predicate. Capacity for all of the elements is reserved up front.
+     *
+     * @param c         The elements to add.
+     * @param predicate The predicate.
+     *
+     * @return This list.
+     */
+    @NotNull XList<E> addAllWhen(@NotNull Collection<? extends E> c, @NotNull Predicate<? super E> predicate);
+
     @NotNull XList<E> addIf(@NotNull E e, @NotNull BooleanSupplier predicate);
 
     @NotNull XList<E> addThen(@NotNull E e);
 
     @NotNull XList<E> addWhen(@NotNull E e, @NotNull Predicate<E> predicate);
 
+    /**
+     * Inserts all of the elements of the given collection at the given index, shifting the elements after it only once.
+     *
+     * @param index The index to insert the elements at.
+     * @param c     The elements to insert.
+     *
+     * @return This list.
+     */
+    @NotNull XList<E> insertAll(int index, @NotNull Collection<? extends E> c);
+
     @NotNull XList<E> removeAllIf(@NotNull Collection<? extends E> c, @NotNull BooleanSupplier predicate);
 
     @NotNull XList<E> removeAllThen(@NotNull Collection<? extends E> c);
 
+    /**
+     * Removes every element that is in the given collection and satisfies the given predicate. The list is compacted in a single pass.
+     *
+     * @param c         The elements to remove.
+     * @param predicate The predicate.
+     *
+     * @return This list.
+     */
+    @NotNull XList<E> removeAllWhen(@NotNull Collection<?> c, @NotNull Predicate<? super E> predicate);
+
     @NotNull XList<E> removeIf(@NotNull E e, @NotNull BooleanSupplier predicate);
 
+    /**
+     * Removes the elements from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive.
+     *
+     * @param fromIndex The index of the first element to remove.
+     * @param toIndex   The index after the last element to remove.
+     */
+    void removeRange(int fromIndex, int toIndex);
+
     @NotNull XList<E> removeThen(@NotNull E e);
 
     @NotNull XList<E> removeWhen(@NotNull E e, @NotNull Predicate<E> predicate);
+
+    /**
+     * Removes every element that is NOT in the given collection but only if it satisfies the given predicate. The list is compacted in a single pass.
+     *
+     * @param c         The elements to retain.
+     * @param predicate The predicate.
+     *
+     * @return This list.
+     */
+    @NotNull XList<E> retainAllWhen(@NotNull Collection<?> c, @NotNull Predicate<? super E> predicate);
 }
@@ -0,0 +1,235 @@
+package com.projectgalen.lib.utils.reflect;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: Accessor.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.errors.FieldAccessException;
+import com.projectgalen.lib.utils.errors.MethodInvocationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.projectgalen.lib.utils.reflect.Reflect.isAssignable;
+import static com.projectgalen.lib.utils.reflect.Reflect.isStatic;
+
+/**
+ * A per-class cache of {@link MethodHandle}s used to read and write fields and to invoke methods declared in a class. The handles for a given {@link Field} or {@link Method} are created the first
+ * time they are needed and then reused for every subsequent access so that the cost of {@link java.lang.reflect.AccessibleObject#setAccessible(boolean) setAccessible(true)} and the reflective
+ * access checks are paid only once.
+ *
+ * <p>Instances are obtained with {@link #of(Class)} which keeps one instance per declaring class in a {@link ClassValue}. All of the handles are adapted to generic {@link Object} signatures so that
+ * they can be invoked with {@link MethodHandle#invokeExact(Object...)}. Static members simply ignore the target object.</p>
+ *
+ * <p>The target object and the arguments are checked, with the same rules as {@link Method#invoke(Object, Object...)}, before a handle is invoked. A mistake by
+ * the caller is therefore reported with an {@link IllegalArgumentException}, as reflection would, and only exceptions thrown by the method itself are wrapped in
+ * a {@link MethodInvocationException}.</p>
+ */
+@SuppressWarnings("unused")
+public final class Accessor {
+
+    private static final PGResourceBundle     msgs      = new PGResourceBundle("com.projectgalen.lib.utils.messages");
+    private static final MethodType           GETTER    = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType           SETTER    = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType           INVOKER   = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final ClassValue<Accessor> ACCESSORS = new ClassValue<>() {
+        protected @Override Accessor computeValue(@NotNull Class<?> type) { return new Accessor(type); }
+    };
+
+    private final @NotNull Class<?>                  cls;
+    private final @NotNull Map<Field, MethodHandle>  fieldGetters  = new ConcurrentHashMap<>();
+    private final @NotNull Map<Field, MethodHandle>  fieldSetters  = new ConcurrentHashMap<>();
+    private final @NotNull Map<Method, MethodHandle> methodGetters = new ConcurrentHashMap<>();
+    private final @NotNull Map<Method, Invoker>      methodSetters = new ConcurrentHashMap<>();
+    private final @NotNull Map<Method, Invoker>      invokers      = new ConcurrentHashMap<>();
+
+    private Accessor(@NotNull Class<?> cls) {
+        this.cls = cls;
+    }
+
+    /**
+     * Returns the value of the field in the given object.
+     *
+     * @param field The field declared in this accessor's class.
+     * @param obj   The object to read the field from. Ignored if the field is static.
+     *
+     * @return The value of the field.
+     *
+     * @throws FieldAccessException if the handle for the field cannot be created.
+     */
+    public Object get(@NotNull Field field, Object obj) {
+        MethodHandle h = fieldGetters.computeIfAbsent(field, this::createFieldGetter);
+        checkTarget(field, obj);
+        try { return h.invokeExact(obj); } catch(RuntimeException | Error e) { throw e; } catch(Throwable t) { throw new FieldAccessException(t.toString(), t); }
+    }
+
+    /**
+     * @return The {@link Class} this accessor serves.
+     */
+    public @NotNull Class<?> getCls() {
+        return cls;
+    }
+
+    /**
+     * Invokes the given getter method on the given object. The method must take no parameters.
+     *
+     * @param method The getter method declared in this accessor's class.
+     * @param obj    The target object. Ignored if the method is static.
+     *
+     * @return The value returned by the getter.
+     *
+     * @throws MethodInvocationException if the getter throws an exception.
+     */
+    public Object getFromGetter(@NotNull Method method, Object obj) {
+        MethodHandle h = methodGetters.computeIfAbsent(method, m -> adapt(m, GETTER));
+        checkTarget(method, obj);
+        try { return h.invokeExact(obj); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Invokes the given method on the given object.
+     *
+     * @param method The method declared in this accessor's class.
+     * @param obj    The target object. Ignored if the method is static.
+     * @param args   The arguments to the method.
+     *
+     * @return The value returned by the method or {@code null} if the method is {@code void}.
+     *
+     * @throws MethodInvocationException if the method throws an exception.
+     */
+    public Object invoke(@NotNull Method method, Object obj, Object @NotNull ... args) {
+        Invoker h = invokers.computeIfAbsent(method, this::createInvoker);
+        checkTarget(method, obj);
+        if(args.length != h.params.length) {
+            throw new IllegalArgumentException(msgs.format("msg.err.method_param_count_mismatch", args.length, h.params.length, method));
+        }
+        for(int i = 0; i < args.length; i++) checkArgument(method, h.params[i], args[i]);
+        try { return h.handle.invokeExact(obj, args); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Sets the value of the field in the given object.
+     *
+     * @param field The field declared in this accessor's class.
+     * @param obj   The object to write the field to. Ignored if the field is static.
+     * @param value The new value.
+     *
+     * @throws FieldAccessException if the handle for the field cannot be created.
+     */
+    public void set(@NotNull Field field, Object obj, Object value) {
+        MethodHandle h = fieldSetters.computeIfAbsent(field, this::createFieldSetter);
+        checkTarget(field, obj);
+        checkArgument(field, field.getType(), value);
+        try { h.invokeExact(obj, value); } catch(RuntimeException | Error e) { throw e; } catch(Throwable t) { throw new FieldAccessException(t.toString(), t); }
+    }
+
+    /**
+     * Invokes the given setter method on the given object. The method must take exactly one parameter.
+     *
+     * @param method The setter method declared in this accessor's class.
+     * @param obj    The target object. Ignored if the method is static.
+     * @param value  The value to pass to the setter.
+     *
+     * @throws MethodInvocationException if the setter throws an exception.
+     */
+    public void setToSetter(@NotNull Method method, Object obj, Object value) {
+        Invoker h = methodSetters.computeIfAbsent(method, m -> new Invoker(adapt(m, SETTER), m.getParameterTypes()));
+        checkTarget(method, obj);
+        checkArgument(method, h.params[0], value);
+        try { h.handle.invokeExact(obj, value); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    private void checkArgument(@NotNull Member member, @NotNull Class<?> type, @Nullable Object arg) {
+        if((arg == null) ? type.isPrimitive() : !(type.isPrimitive() ? isAssignable(type, arg.getClass()) : type.isInstance(arg))) {
+            throw new IllegalArgumentException(msgs.format("msg.err.argument_type_mismatch", ((arg == null) ? "null" : arg.getClass().getName()), type.getName(), member));
+        }
+    }
+
+    private void checkTarget(@NotNull Member member, @Nullable Object obj) {
+        if(!isStatic(member) && !cls.isInstance(obj)) throw new IllegalArgumentException(msgs.format("msg.err.not_instance_of_declaring_class", member));
+    }
+
+    private @NotNull MethodHandle createFieldGetter(@NotNull Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle h = MethodHandles.lookup().unreflectGetter(field);
+            return (isStatic(field) ? MethodHandles.dropArguments(h, 0, Object.class) : h).asType(GETTER);
+        }
+        catch(IllegalAccessException e) {
+            throw new FieldAccessException(e.toString(), e);
+        }
+    }
+
+    private @NotNull MethodHandle createFieldSetter(@NotNull Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle h = MethodHandles.lookup().unreflectSetter(field);
+            return (isStatic(field) ? MethodHandles.dropArguments(h, 0, Object.class) : h).asType(SETTER);
+        }
+        catch(IllegalAccessException e) {
+            throw new FieldAccessException(e.toString(), e);
+        }
+    }
+
+    private @NotNull Invoker createInvoker(@NotNull Method method) {
+        int cnt = method.getParameterCount();
+        return new Invoker(adapt(method, MethodType.genericMethodType(cnt + 1)).asSpreader(Object[].class, cnt).asType(INVOKER), method.getParameterTypes());
+    }
+
+    private static @NotNull MethodHandle adapt(@NotNull Method method, @NotNull MethodType type) {
+        try {
+            method.setAccessible(true);
+            MethodHandle h = MethodHandles.lookup().unreflect(method).asFixedArity();
+            return (isStatic(method) ? MethodHandles.dropArguments(h, 0, Object.class) : h).asType(type);
+        }
+        catch(IllegalAccessException e) {
+            throw new MethodInvocationException(e.toString(), e);
+        }
+    }
+
+    /**
+     * Returns the {@link Accessor} for the given class. Only members declared directly in {@code cls} should be accessed through the returned instance.
+     *
+     * @param cls The declaring class.
+     *
+     * @return The cached {@link Accessor} for the class.
+     */
+    public static @NotNull Accessor of(@NotNull Class<?> cls) {
+        return ACCESSORS.get(cls);
+    }
+
+    private static @NotNull RuntimeException wrap(@NotNull Throwable t) {
+        // The target and the arguments have already been checked so anything thrown here came from the method itself. Keep the same shape Method.invoke(...)
+        // gave us: the target's exception wrapped in an InvocationTargetException.
+        InvocationTargetException e = new InvocationTargetException(t);
+        return new MethodInvocationException(e.toString(), e);
+    }
+
+    /**
+     * A method's handle along with its parameter types, so they don't have to be copied from the {@link Method} on every call.
+     */
+    private record Invoker(@NotNull MethodHandle handle, @NotNull Class<?> @NotNull [] params) { }
+}
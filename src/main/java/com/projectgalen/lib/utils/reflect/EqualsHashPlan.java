@@ -0,0 +1,196 @@
+package com.projectgalen.lib.utils.reflect;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: EqualsHashPlan.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import com.projectgalen.lib.utils.annotations.Equals;
+import com.projectgalen.lib.utils.annotations.Hash;
+import com.projectgalen.lib.utils.errors.FieldAccessException;
+import com.projectgalen.lib.utils.errors.MethodInvocationException;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.projectgalen.lib.utils.reflect.Reflect.*;
+
+/**
+ * A precomputed plan for {@link Reflect#easyEquals(Object, Object)} and {@link Reflect#easyHash(Object)}. The fields and getters of a class (and its superclasses) that are marked with
+ * {@link Equals} or {@link Hash} are found once, turned into {@link MethodHandle}s that return their natural (possibly primitive) type, and then reused for every comparison. Primitive members are
+ * compared and hashed without boxing and evaluating a plan does not allocate.
+ *
+ * <p>The members are visited in the same order as {@link Reflect#streamFieldsAndGetters(Class)} so the hash codes are the same as the ones computed before plans existed.</p>
+ */
+final class EqualsHashPlan {
+
+    private static final ClassValue<EqualsHashPlan> PLANS = new ClassValue<>() {
+        protected @Override EqualsHashPlan computeValue(@NotNull Class<?> type) { return new EqualsHashPlan(type); }
+    };
+
+    private final Term @NotNull [] equalsTerms;
+    private final Term @NotNull [] hashTerms;
+
+    private EqualsHashPlan(@NotNull Class<?> cls) {
+        equalsTerms = findTerms(cls, Equals.class);
+        hashTerms   = findTerms(cls, Hash.class);
+    }
+
+    boolean equals(@NotNull Object o1, @NotNull Object o2) {
+        try {
+            for(Term t : equalsTerms) if(!t.eq(o1, o2)) return false;
+            return true;
+        }
+        catch(Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    int hash(@NotNull Object o) {
+        try {
+            int r = 1;
+            for(Term t : hashTerms) r = ((31 * r) + t.hash(o));
+            return r;
+        }
+        catch(Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    static @NotNull EqualsHashPlan of(@NotNull Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    private static Term @NotNull [] findTerms(@NotNull Class<?> cls, @NotNull Class<? extends Annotation> marker) {
+        List<Term> terms = new ArrayList<>();
+        forEachSuper(cls, (c, f) -> {
+            for(Field fl : c.getDeclaredFields()) if(fl.isAnnotationPresent(marker)) terms.add(newTerm(fl, fl.getType()));
+            for(Method m : c.getDeclaredMethods()) if(isGetter(m) && m.isAnnotationPresent(marker)) terms.add(newTerm(m, m.getReturnType()));
+        });
+        return terms.toArray(Term[]::new);
+    }
+
+    private static @NotNull MethodHandle getHandle(@NotNull AccessibleObject ao, @NotNull Class<?> type) {
+        try {
+            ao.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if(ao instanceof Field f) {
+                MethodHandle h = lookup.unreflectGetter(f);
+                return (isStatic(f) ? MethodHandles.dropArguments(h, 0, Object.class) : h).asType(MethodType.methodType(type, Object.class));
+            }
+            Method       m = (Method)ao;
+            MethodHandle h = lookup.unreflect(m);
+            return (isStatic(m) ? MethodHandles.dropArguments(h, 0, Object.class) : h).asType(MethodType.methodType(type, Object.class));
+        }
+        catch(IllegalAccessException e) {
+            throw new FieldAccessException(e.toString(), e);
+        }
+    }
+
+    private static @NotNull Term newTerm(@NotNull AccessibleObject ao, @NotNull Class<?> type) {
+        if(type == boolean.class) return new BooleanTerm(getHandle(ao, type));/*@f0*/
+        if(type == char.class)    return new CharTerm(getHandle(ao, type));
+        if(type == byte.class)    return new ByteTerm(getHandle(ao, type));
+        if(type == short.class)   return new ShortTerm(getHandle(ao, type));
+        if(type == int.class)     return new IntTerm(getHandle(ao, type));
+        if(type == long.class)    return new LongTerm(getHandle(ao, type));
+        if(type == float.class)   return new FloatTerm(getHandle(ao, type));
+        if(type == double.class)  return new DoubleTerm(getHandle(ao, type));
+        return new ObjectTerm(getHandle(ao, Object.class));/*@f1*/
+    }
+
+    private static @NotNull RuntimeException wrap(@NotNull Throwable t) {
+        // Same shape as Reflect.getFrom(...): whatever a getter throws is wrapped in an InvocationTargetException.
+        InvocationTargetException e = new InvocationTargetException(t);
+        return new MethodInvocationException(e.toString(), e);
+    }
+
+    private static abstract class Term {
+        protected final MethodHandle h;
+
+        Term(@NotNull MethodHandle h) { this.h = h; }
+
+        abstract boolean eq(Object o1, Object o2) throws Throwable;
+
+        abstract int hash(Object o) throws Throwable;
+    }
+
+    /*@f0*/
+    private static final class BooleanTerm extends Term {
+        BooleanTerm(@NotNull MethodHandle h)                         { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return ((boolean)h.invokeExact(o1) == (boolean)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Boolean.hashCode((boolean)h.invokeExact(o)); }
+    }
+
+    private static final class CharTerm extends Term {
+        CharTerm(@NotNull MethodHandle h)                            { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return ((char)h.invokeExact(o1) == (char)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Character.hashCode((char)h.invokeExact(o)); }
+    }
+
+    private static final class ByteTerm extends Term {
+        ByteTerm(@NotNull MethodHandle h)                            { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return ((byte)h.invokeExact(o1) == (byte)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Byte.hashCode((byte)h.invokeExact(o)); }
+    }
+
+    private static final class ShortTerm extends Term {
+        ShortTerm(@NotNull MethodHandle h)                           { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return ((short)h.invokeExact(o1) == (short)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Short.hashCode((short)h.invokeExact(o)); }
+    }
+
+    private static final class IntTerm extends Term {
+        IntTerm(@NotNull MethodHandle h)                             { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return ((int)h.invokeExact(o1) == (int)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Integer.hashCode((int)h.invokeExact(o)); }
+    }
+
+    private static final class LongTerm extends Term {
+        LongTerm(@NotNull MethodHandle h)                            { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return ((long)h.invokeExact(o1) == (long)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Long.hashCode((long)h.invokeExact(o)); }
+    }
+
+    // Float and Double compare by their bits so NaN == NaN and 0.0 != -0.0, just like Float.equals(...) and Double.equals(...).
+    private static final class FloatTerm extends Term {
+        FloatTerm(@NotNull MethodHandle h)                           { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return (Float.floatToIntBits((float)h.invokeExact(o1)) == Float.floatToIntBits((float)h.invokeExact(o2))); }
+        @Override int hash(Object o) throws Throwable               { return Float.hashCode((float)h.invokeExact(o)); }
+    }
+
+    private static final class DoubleTerm extends Term {
+        DoubleTerm(@NotNull MethodHandle h)                          { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return (Double.doubleToLongBits((double)h.invokeExact(o1)) == Double.doubleToLongBits((double)h.invokeExact(o2))); }
+        @Override int hash(Object o) throws Throwable               { return Double.hashCode((double)h.invokeExact(o)); }
+    }
+
+    private static final class ObjectTerm extends Term {
+        ObjectTerm(@NotNull MethodHandle h)                          { super(h); }
+        @Override boolean eq(Object o1, Object o2) throws Throwable { return Objects.equals((Object)h.invokeExact(o1), (Object)h.invokeExact(o2)); }
+        @Override int hash(Object o) throws Throwable               { return Objects.hashCode((Object)h.invokeExact(o)); }
+    }
+    /*@f1*/
+}
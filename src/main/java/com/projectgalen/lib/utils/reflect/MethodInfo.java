@@ -23,12 +23,15 @@ import com.projectgalen.lib.utils.errors.MethodInvocationException;
 import com.projectgalen.lib.utils.errors.MethodNotFoundException;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -40,18 +43,24 @@ import java.util.stream.Collectors;
  * then use the actual methods {@link Class#getMethod(String, Class...)} and {@link Method#invoke(Object, Object...)}.</p>
  *
  * <p>This class implements {@link Comparable} so that instances of this class can be stored in {@link java.util.TreeSet}s or used as keys in {@link java.util.TreeMap}s</p>
+ *
+ * <p>The {@link Method} is looked up lazily, exactly once, the first time it is needed and is then kept along with a {@link MethodHandle} used by all of the {@code invoke} methods. Use
+ * {@link #of(Class, String, boolean, Class[])} to get a shared, interned instance so that the lookup is also shared between callers. The {@link #invoke0(Object)} through
+ * {@link #invoke4(Object, Object, Object, Object, Object)} methods call the method without building an arguments array.</p>
  */
 @SuppressWarnings({ "unused", "unchecked" })
 public class MethodInfo implements Comparable<MethodInfo> {
 
-    private static final PGResourceBundle    msgs  = new PGResourceBundle("com.projectgalen.lib.utils.messages");
-    private static final Map<String, Method> CACHE = new TreeMap<>();
+    private static final PGResourceBundle            msgs  = new PGResourceBundle("com.projectgalen.lib.utils.messages");
+    private static final Map<MethodInfo, MethodInfo> CACHE = new ConcurrentHashMap<>();
 
     private final @NotNull Class<?>             cls;
     private final @NotNull String               name;
     private final          boolean              isStatic;
     private final          Class<?> @NotNull [] types;
     private final @NotNull String               key;
+    private final          int                  hash;
+    private volatile       Resolved             resolved;
 
     /**
      * Creates a new instance of {@link MethodInfo}.
@@ -69,6 +78,7 @@ public class MethodInfo implements Comparable<MethodInfo> {
         this.isStatic = isStatic;
         this.types    = types;
         this.key      = "%s %s%s(%s)".formatted(cls.getName(), (isStatic ? "static " : ""), name, Arrays.stream(types).map(Class::getName).collect(Collectors.joining(",")));
+        this.hash     = Objects.hash(cls, name, isStatic, Arrays.hashCode(types), key);
     }
 
     /**
@@ -136,7 +146,7 @@ public class MethodInfo implements Comparable<MethodInfo> {
      * @throws MethodNotFoundException if the method cannot be found in the associated {@link Class} or one of it's {@link Class#getSuperclass() superclasses}.
      */
     public @NotNull Method getMethod() {
-        return Obj.requireNonNull(Reflect.getMethod(cls, isStatic, name, types), () -> new MethodNotFoundException(msgs.getString("msg.err.no_such_method").formatted(key)));
+        return resolve().method;
     }
 
     /**
@@ -174,7 +184,7 @@ public class MethodInfo implements Comparable<MethodInfo> {
      * @see java.lang.System#identityHashCode
      */
     public @Override int hashCode() {
-        return Objects.hash(cls, name, isStatic, Arrays.hashCode(types), key);
+        return hash;
     }
 
     /**
@@ -195,7 +205,114 @@ public class MethodInfo implements Comparable<MethodInfo> {
      * @see Method#invoke(Object, Object...)
      */
     public <T> T invoke(Object obj, Object @NotNull ... args) {
-        try { return (T)getMethod().invoke(obj, args); } catch(IllegalAccessException | InvocationTargetException e) { throw new MethodInvocationException(e); }
+        Resolved r = resolve(obj, args.length);
+        for(int i = 0; i < args.length; i++) r.checkArgument(i, args[i]);
+        try { return (T)r.spreader.invokeExact(obj, args); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Invokes a method that takes no parameters.
+     *
+     * @param obj The object the underlying method is invoked from. Ignored for static methods.
+     * @param <T> The expected type of the returned result.
+     *
+     * @return The result of the method call or {@code null} if the method is {@code void}.
+     *
+     * @throws MethodInvocationException If the method throws an exception.
+     * @throws IllegalArgumentException  If the method does not take exactly zero parameters.
+     * @see #invoke(Object, Object...)
+     */
+    public <T> T invoke0(Object obj) {
+        Resolved r = resolve(obj, 0);
+        try { return (T)r.handle.invokeExact(obj); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Invokes a method that takes exactly one parameter.
+     *
+     * @param obj  The object the underlying method is invoked from. Ignored for static methods.
+     * @param arg1 The first argument.
+     * @param <T>  The expected type of the returned result.
+     *
+     * @return The result of the method call or {@code null} if the method is {@code void}.
+     *
+     * @throws MethodInvocationException If the method throws an exception.
+     * @throws IllegalArgumentException  If the method does not take exactly one parameter or the argument cannot be passed as that parameter.
+     * @see #invoke(Object, Object...)
+     */
+    public <T> T invoke1(Object obj, Object arg1) {
+        Resolved r = resolve(obj, 1);
+        r.checkArgument(0, arg1);
+        try { return (T)r.handle.invokeExact(obj, arg1); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Invokes a method that takes exactly two parameters.
+     *
+     * @param obj  The object the underlying method is invoked from. Ignored for static methods.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     * @param <T>  The expected type of the returned result.
+     *
+     * @return The result of the method call or {@code null} if the method is {@code void}.
+     *
+     * @throws MethodInvocationException If the method throws an exception.
+     * @throws IllegalArgumentException  If the method does not take exactly two parameters or an argument cannot be passed as its parameter.
+     * @see #invoke(Object, Object...)
+     */
+    public <T> T invoke2(Object obj, Object arg1, Object arg2) {
+        Resolved r = resolve(obj, 2);
+        r.checkArgument(0, arg1);
+        r.checkArgument(1, arg2);
+        try { return (T)r.handle.invokeExact(obj, arg1, arg2); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Invokes a method that takes exactly three parameters.
+     *
+     * @param obj  The object the underlying method is invoked from. Ignored for static methods.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     * @param arg3 The third argument.
+     * @param <T>  The expected type of the returned result.
+     *
+     * @return The result of the method call or {@code null} if the method is {@code void}.
+     *
+     * @throws MethodInvocationException If the method throws an exception.
+     * @throws IllegalArgumentException  If the method does not take exactly three parameters or an argument cannot be passed as its parameter.
+     * @see #invoke(Object, Object...)
+     */
+    public <T> T invoke3(Object obj, Object arg1, Object arg2, Object arg3) {
+        Resolved r = resolve(obj, 3);
+        r.checkArgument(0, arg1);
+        r.checkArgument(1, arg2);
+        r.checkArgument(2, arg3);
+        try { return (T)r.handle.invokeExact(obj, arg1, arg2, arg3); } catch(Throwable t) { throw wrap(t); }
+    }
+
+    /**
+     * Invokes a method that takes exactly four parameters.
+     *
+     * @param obj  The object the underlying method is invoked from. Ignored for static methods.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     * @param arg3 The third argument.
+     * @param arg4 The fourth argument.
+     * @param <T>  The expected type of the returned result.
+     *
+     * @return The result of the method call or {@code null} if the method is {@code void}.
+     *
+     * @throws MethodInvocationException If the method throws an exception.
+     * @throws IllegalArgumentException  If the method does not take exactly four parameters or an argument cannot be passed as its parameter.
+     * @see #invoke(Object, Object...)
+     */
+    public <T> T invoke4(Object obj, Object arg1, Object arg2, Object arg3, Object arg4) {
+        Resolved r = resolve(obj, 4);
+        r.checkArgument(0, arg1);
+        r.checkArgument(1, arg2);
+        r.checkArgument(2, arg3);
+        r.checkArgument(3, arg4);
+        try { return (T)r.handle.invokeExact(obj, arg1, arg2, arg3, arg4); } catch(Throwable t) { throw wrap(t); }
     }
 
     /**
@@ -217,4 +334,85 @@ public class MethodInfo implements Comparable<MethodInfo> {
     private boolean _equals(@NotNull MethodInfo info) {
         return ((isStatic == info.isStatic) && Objects.equals(cls, info.cls) && Objects.equals(name, info.name) && Objects.deepEquals(types, info.types) && Objects.equals(key, info.key));
     }
+
+    private @NotNull Resolved resolve() {
+        Resolved r = resolved;
+        if(r == null) {
+            synchronized(this) {
+                if((r = resolved) == null) resolved = r = new Resolved(Obj.requireNonNull(Reflect.getMethod(cls, isStatic, name, types), () -> new MethodNotFoundException(msgs.format("msg.err.no_such_method", key))));
+            }
+        }
+        return r;
+    }
+
+    private @NotNull Resolved resolve(Object obj, int argCount) {
+        Resolved r = resolve();
+        if(argCount != types.length) throw new IllegalArgumentException(msgs.format("msg.err.method_param_count_mismatch", argCount, types.length, key));
+        if(!isStatic) {
+            if(obj == null) throw new NullPointerException(msgs.format("msg.err.not_static_method", key));
+            if(!r.method.getDeclaringClass().isInstance(obj)) throw new IllegalArgumentException(msgs.format("msg.err.not_instance_of_declaring_class", key));
+        }
+        return r;
+    }
+
+    /**
+     * Returns the shared instance of {@link MethodInfo} for the given method description. The first caller to ask for a particular method creates the instance and every later caller gets that same
+     * instance so the method is only ever looked up once.
+     *
+     * @param cls      The class in which the method exists.
+     * @param name     The name of the method.
+     * @param isStatic {@code true} if the method is static, {@code false} otherwise.
+     * @param types    The types of each of the parameters of the method.
+     *
+     * @return The interned instance of {@link MethodInfo}.
+     */
+    public static @NotNull MethodInfo of(@NotNull Class<?> cls, @NotNull String name, boolean isStatic, Class<?> @NotNull ... types) {
+        return intern(new MethodInfo(cls, name, isStatic, Arrays.copyOf(types, types.length)));
+    }
+
+    /**
+     * Returns the shared instance of {@link MethodInfo} that is {@link #equals(Object) equal} to the given one, registering the given one if there isn't one yet.
+     *
+     * @param info The instance to intern.
+     *
+     * @return The interned instance of {@link MethodInfo}.
+     */
+    public static @NotNull MethodInfo intern(@NotNull MethodInfo info) {
+        MethodInfo existing = CACHE.putIfAbsent(info, info);
+        return ((existing == null) ? info : existing);
+    }
+
+    private static @NotNull RuntimeException wrap(@NotNull Throwable t) {
+        // Keep the same shape Method.invoke(...) gave us: the target's exception wrapped in an InvocationTargetException. The arguments have already been
+        // checked so anything that gets here was thrown by the target and not by the handle's conversions.
+        return new MethodInvocationException(new InvocationTargetException(t));
+    }
+
+    private static final class Resolved {
+        private final @NotNull Method       method;
+        private final @NotNull Class<?>[]   params;
+        private final @NotNull MethodHandle handle;
+        private final @NotNull MethodHandle spreader;
+
+        private Resolved(@NotNull Method method) {
+            int cnt = method.getParameterCount();
+            try {
+                MethodHandle h = MethodHandles.lookup().unreflect(Reflect.makeAccessible(method)).asFixedArity();
+                this.method   = method;
+                this.params   = method.getParameterTypes();
+                this.handle   = (Reflect.isStatic(method) ? MethodHandles.dropArguments(h, 0, Object.class) : h).asType(MethodType.genericMethodType(cnt + 1));
+                this.spreader = handle.asSpreader(Object[].class, cnt);
+            }
+            catch(IllegalAccessException e) {
+                throw new MethodInvocationException(e);
+            }
+        }
+
+        private void checkArgument(int index, Object arg) {
+            Class<?> type = params[index];
+            if((arg == null) ? type.isPrimitive() : !(type.isPrimitive() ? Reflect.isAssignable(type, arg.getClass()) : type.isInstance(arg))) {
+                throw new IllegalArgumentException(msgs.format("msg.err.argument_type_mismatch", ((arg == null) ? "null" : arg.getClass().getName()), type.getName(), method));
+            }
+        }
+    }
 }
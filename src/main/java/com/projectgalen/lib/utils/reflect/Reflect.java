@@ -19,9 +19,6 @@ package com.projectgalen.lib.utils.reflect;
 
 import com.projectgalen.lib.utils.PGArrays;
 import com.projectgalen.lib.utils.PGResourceBundle;
-import com.projectgalen.lib.utils.annotations.Equals;
-import com.projectgalen.lib.utils.annotations.Hash;
-import com.projectgalen.lib.utils.errors.FieldAccessException;
 import com.projectgalen.lib.utils.errors.MethodInvocationException;
 import com.projectgalen.lib.utils.errors.MethodNotFoundException;
 import com.projectgalen.lib.utils.functions.BiConsumerEx;
@@ -50,6 +47,7 @@ public final class Reflect {
     private static final String           GET       = "get";
     private static final String           SET       = "set";
     private static final Class<?>[]       NO_PARAMS = new Class<?>[0];
+    private static final Object[]         NO_ARGS   = new Object[0];
 
     private Reflect() { }
 
@@ -109,23 +107,18 @@ public final class Reflect {
     public static Object getFrom(@NotNull AccessibleObject ao, Object obj) {
         if(ao instanceof Field f) return getFromField(f, obj);
         if(ao instanceof Method m) return getFromGetter(m, obj);
-        throw new IllegalArgumentException(msgs.getString("msg.err.ao_not_field_or_getter").formatted(ao));
+        throw new IllegalArgumentException(msgs.format("msg.err.ao_not_field_or_getter", ao));
     }
 
     public static Object getFromField(@NotNull Field f, Object obj) {
-        try {
-            if((obj == null) && !isStatic(f)) throw new IllegalArgumentException(msgs.getString("msg.err.not_static_field").formatted(f));
-            f.setAccessible(true);
-            return f.get(obj);
-        }
-        catch(IllegalAccessException e) {
-            throw new MethodInvocationException(e.toString(), e);
-        }
+        if((obj == null) && !isStatic(f)) throw new IllegalArgumentException(msgs.format("msg.err.not_static_field", f));
+        return Accessor.of(f.getDeclaringClass()).get(f, obj);
     }
 
     public static Object getFromGetter(@NotNull Method m, Object obj) {
-        if(!isGetter(m)) throw new IllegalArgumentException(msgs.getString("msg.err.ao_not_field_or_getter").formatted(m));
-        return invoke(m, obj);
+        if(!isGetter(m)) throw new IllegalArgumentException(msgs.format("msg.err.ao_not_field_or_getter", m));
+        if((obj == null) && !isStatic(m)) throw new IllegalArgumentException(msgs.format("msg.err.not_static_method", m));
+        return Accessor.of(m.getDeclaringClass()).getFromGetter(m, obj);
     }
 
     public static <T> @NotNull T getInstance(@NotNull Class<T> cls) {
@@ -221,14 +214,8 @@ public final class Reflect {
     }
 
     public static @SuppressWarnings({ "unchecked", "UnusedReturnValue" }) <T> T invoke(@NotNull Method method, @Nullable Object target, Object... params) {
-        try {
-            if((target == null) && !isStatic(method)) throw new IllegalArgumentException(msgs.getString("msg.err.not_static_method").formatted(method));
-            method.setAccessible(true);
-            return (T)method.invoke(target, params);
-        }
-        catch(InvocationTargetException | IllegalAccessException e) {
-            throw new MethodInvocationException(e.toString(), e);
-        }
+        if((target == null) && !isStatic(method)) throw new IllegalArgumentException(msgs.format("msg.err.not_static_method", method));
+        return (T)Accessor.of(method.getDeclaringClass()).invoke(method, target, ofNullable(params).orElse(NO_ARGS));
     }
 
     public static boolean isAbstract(@NotNull Member m) {
@@ -358,25 +345,20 @@ public final class Reflect {
 
     public static void setTo(@NotNull AccessibleObject ao, Object obj, Object value) {
         if(ao instanceof Field f) setToField(f, obj, value);
-        if(ao instanceof Method m) setToSetter(m, obj, value);
-        throw new IllegalArgumentException(msgs.getString("msg.err.ao_not_field_or_setter").formatted(ao.toString()));
+        else if(ao instanceof Method m) setToSetter(m, obj, value);
+        else throw new IllegalArgumentException(msgs.format("msg.err.ao_not_field_or_setter", ao.toString()));
     }
 
     public static void setToField(@NotNull Field field, Object obj, Object value) {
-        try {
-            if((obj == null) && !isStatic(field)) throw new IllegalArgumentException(msgs.getString("msg.err.not_static_field").formatted(field));
-            if(isFinal(field)) throw new IllegalArgumentException(msgs.getString("msg.err.field_is_final").formatted(field));
-            field.setAccessible(true);
-            field.set(obj, value);
-        }
-        catch(IllegalAccessException e) {
-            throw new FieldAccessException(e.toString(), e);
-        }
+        if((obj == null) && !isStatic(field)) throw new IllegalArgumentException(msgs.format("msg.err.not_static_field", field));
+        if(isFinal(field)) throw new IllegalArgumentException(msgs.format("msg.err.field_is_final", field));
+        Accessor.of(field.getDeclaringClass()).set(field, obj, value);
     }
 
     public static void setToSetter(@NotNull Method method, Object obj, Object value) {
-        if(!isSetter(method)) throw new IllegalArgumentException(msgs.getString("msg.err.ao_not_field_or_setter").formatted(method));
-        invoke(method, obj, value);
+        if(!isSetter(method)) throw new IllegalArgumentException(msgs.format("msg.err.ao_not_field_or_setter", method));
+        if((obj == null) && !isStatic(method)) throw new IllegalArgumentException(msgs.format("msg.err.not_static_method", method));
+        Accessor.of(method.getDeclaringClass()).setToSetter(method, obj, value);
     }
 
     public static @NotNull Stream<Constructor<?>> streamConstructors(@NotNull Class<?> cls) {
@@ -440,10 +422,10 @@ public final class Reflect {
     }
 
     private static boolean _easyEquals(@NotNull Object o1, @NotNull Object o2) {
-        return ((o1.getClass() == o2.getClass()) && streamFieldsAndGetters(o1.getClass()).filter(m -> hasAll(m, Equals.class)).map(m -> equals(m, o1, o2)).filter(b -> !b).findFirst().orElse(true));
+        return ((o1.getClass() == o2.getClass()) && EqualsHashPlan.of(o1.getClass()).equals(o1, o2));
     }
 
     private static int _easyHash(@NotNull Object o) {
-        return streamFieldsAndGetters(o.getClass()).filter(f -> hasAll(f, Hash.class)).mapToInt(f -> Objects.hashCode(getFrom(f, o))).reduce(1, (r, h) -> ((31 * r) + h));
+        return EqualsHashPlan.of(o.getClass()).hash(o);
     }
 }
@@ -130,7 +130,7 @@ public class TypeInfo {
                 rawType    = Array.newInstance(i.rawType, 0).getClass();
                 name       = FMT3.formatted(i.name);
             }
-            default -> throw new IllegalArgumentException(msgs.getString("msg.err.type_info.unexpected_type").formatted(type.getClass().getName()));
+            default -> throw new IllegalArgumentException(msgs.format("msg.err.type_info.unexpected_type", type.getClass().getName()));
         }
 
         this.isArray    = isArray;
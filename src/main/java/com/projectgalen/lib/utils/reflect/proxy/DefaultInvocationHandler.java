@@ -45,7 +45,7 @@ public final class DefaultInvocationHandler implements InvocationHandler {
     public @Override @Nullable Object invoke(Object p, @NotNull Method m, Object... a) throws Throwable {
 
         return ofNullable(getMethod(instance.getClass(), m.getName(), m.getParameterTypes()))
-                .orElseThrow(() -> new NoSuchMethodException(msgs.getString("msg.err.no_such_method").formatted(m)))
+                .orElseThrow(() -> new NoSuchMethodException(msgs.format("msg.err.no_such_method", m)))
                 .invoke(instance, a);
     }
 }
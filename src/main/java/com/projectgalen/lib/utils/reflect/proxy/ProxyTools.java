@@ -75,12 +75,12 @@ public class ProxyTools {
     }
 
     public @Nullable Object execStatic(@NotNull Method method, Object... args) {
-        if(isNotStatic(method)) throw new RuntimeException(msgs.getString("msg.err.not_static_method").formatted(method));
+        if(isNotStatic(method)) throw new RuntimeException(msgs.format("msg.err.not_static_method", method));
         return WrapEx.get(() -> method.invoke(cls, args), AS_RT_EXCEPTION);
     }
 
     public @NotNull RuntimeException getException(@NotNull String name) {
-        return new RuntimeException(msgs.getString("msg.err.no_such_method").formatted(name), new NoSuchMethodException(name));
+        return new RuntimeException(msgs.format("msg.err.no_such_method", name), new NoSuchMethodException(name));
     }
 
     public @NotNull Object getInstance() {
@@ -25,6 +25,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 @SuppressWarnings("unused")
 public class CodePointIterator implements Iterator<CodePointIterator.CodePoint>, Markable<String>, Peekable<CodePointIterator.CodePoint> {
@@ -79,34 +80,87 @@ public class CodePointIterator implements Iterator<CodePointIterator.CodePoint>,
         marks[markIdx++] = index;
     }
 
+    /**
+     * @return The index in the input of the next code point.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public @Override @NotNull CodePoint next() {
         CodePoint cp = peek();
         index = cp.next;
         return cp;
     }
 
-    public @Override @NotNull CodePoint peek() {
-        if(!hasNext()) throw new NoSuchElementException();
-        int  i  = index;
-        char c1 = input.charAt(i++);
+    /**
+     * Returns the next code point as a primitive value. Unlike {@link #next()} this method does not allocate anything.
+     *
+     * @return The next code point.
+     *
+     * @throws NoSuchElementException if there are no more code points.
+     */
+    public int nextCodePoint() {
+        int cp = peekCodePoint();
+        index += Character.charCount(cp);
+        return cp;
+    }
 
-        if(Character.isHighSurrogate(c1) && (i < endIndex)) {
-            char c2 = input.charAt(i);
-            if(Character.isLowSurrogate(c2)) return new CodePoint(Character.toCodePoint(c1, c2), index, i + 1);
+    /**
+     * Reads up to {@code len} code points into {@code dst} starting at index {@code off}.
+     *
+     * @param dst The array to store the code points in.
+     * @param off The index in {@code dst} of the first code point.
+     * @param len The maximum number of code points to read.
+     *
+     * @return The number of code points read, which is zero if there are no more code points.
+     *
+     * @throws IndexOutOfBoundsException if {@code off} or {@code len} are out of bounds for {@code dst}.
+     */
+    public int nextCodePoints(int @NotNull [] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        int i = off;
+        int j = (off + len);
+        while((i < j) && (index < endIndex)) {
+            int cp = SimpleCodePointIterator.codePointAt(input, index, endIndex);
+            index += Character.charCount(cp);
+            dst[i++] = cp;
         }
-        return new CodePoint(c1, index, i);
+        return (i - off);
+    }
+
+    public @Override @NotNull CodePoint peek() {
+        int cp = peekCodePoint();
+        return new CodePoint(cp, index, (index + Character.charCount(cp)));
+    }
+
+    /**
+     * Returns the next code point as a primitive value without moving past it. Unlike {@link #peek()} this method does not allocate anything.
+     *
+     * @return The next code point.
+     *
+     * @throws NoSuchElementException if there are no more code points.
+     */
+    public int peekCodePoint() {
+        if(!hasNext()) throw new NoSuchElementException();
+        return SimpleCodePointIterator.codePointAt(input, index, endIndex);
     }
 
     public @Override void releaseMark() {
         if(markIdx == 0) throw new NoSuchElementException(msgs.getString("msg.err.no_mark_found"));
         --markIdx;
-        if((marks.length > 5) && (markIdx <= (marks.length / 2))) marks = Arrays.copyOf(marks, (marks.length / 2));
+        shrinkMarks();
     }
 
     public @Override void resetMark() {
         if(markIdx == 0) throw new NoSuchElementException(msgs.getString("msg.err.no_mark_found"));
         index = marks[--markIdx];
-        if((marks.length > 5) && (markIdx <= (marks.length / 2))) marks = Arrays.copyOf(marks, (marks.length / 2));
+        shrinkMarks();
+    }
+
+    private void shrinkMarks() {
+        // Only shrink once the stack is down to a quarter so that mark/release pairs at the boundary don't reallocate every time.
+        if((marks.length > 5) && (markIdx <= (marks.length / 4))) marks = Arrays.copyOf(marks, Math.max(5, (marks.length / 2)));
     }
 
     public record CodePoint(int codePoint, int pos, int next) implements Comparable<CodePointIterator.CodePoint> {
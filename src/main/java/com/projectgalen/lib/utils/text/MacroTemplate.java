@@ -0,0 +1,189 @@
+package com.projectgalen.lib.utils.text;
+// ================================================================================================================================
+//     PROJECT: PGUtilities
+//    FILENAME: MacroTemplate.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 17, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any purpose with or without fee is hereby granted, provided
+// that the above copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+// WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+// CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN ACTION OF CONTRACT,
+// NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ================================================================================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * A string that has been parsed once into literal text and <code>${name}</code> macros so that it can be expanded many times, with {@link #expand(Function)}, without scanning it again. Escapes are
+ * resolved when the template is compiled. Expanding a template produces the same result as {@link Macros#expand(CharSequence, Function)} would for the original string.
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ */
+@SuppressWarnings("unused")
+public final class MacroTemplate {
+
+    private final @NotNull String             source;
+    private final          Object @NotNull [] segments;
+    private final @NotNull List<String>       names;
+    private final          int                literalLength;
+
+    private MacroTemplate(@NotNull String source, @NotNull List<Object> segments, int literalLength) {
+        Set<String> n = new LinkedHashSet<>();
+        for(Object o : segments) if(o instanceof Var v) n.add(v.name);
+
+        this.source        = source;
+        this.segments      = segments.toArray();
+        this.names         = List.copyOf(n);
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Expands this template.
+     *
+     * @param func The function used to look up the value of each macro. The values are expanded themselves before they are inserted.
+     *
+     * @return The expanded string.
+     */
+    public @NotNull String expand(@NotNull Function<String, Optional<String>> func) {
+        if(segments.length == 0) return "";
+        if((segments.length == 1) && (segments[0] instanceof String str)) return str;
+
+        StringBuilder sb    = new StringBuilder(literalLength + (names.size() * 16));
+        List<String>  guard = new ArrayList<>();
+        for(Object o : segments) {
+            if(o instanceof Var v) Macros.expandMacro(v.name, v.raw, func, sb, guard);
+            else sb.append((String)o);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Expands this template.
+     *
+     * @param func The function used to look up the value of each macro. A value of {@code null} means the macro has no value.
+     *
+     * @return The expanded string.
+     */
+    public @NotNull String expand2(@NotNull Function<String, String> func) {
+        return expand(s -> ofNullable(func.apply(s)));
+    }
+
+    /**
+     * @return The names of the macros in this template, in the order they first appear and without duplicates.
+     */
+    public @NotNull List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return The original, unparsed, string.
+     */
+    public @NotNull String getSource() {
+        return source;
+    }
+
+    /**
+     * @return {@code true} if this template contains no macros.
+     */
+    public boolean isConstant() {
+        return names.isEmpty();
+    }
+
+    /**
+     * Expands this template without expanding the values of the macros any further: each value is inserted exactly as it is. Use this when the values have
+     * already been expanded, for example when a set of templates is expanded in dependency order.
+     *
+     * @param func The function used to look up the value of each macro. A value of {@code null} means the macro has no value and the original macro text is
+     *             inserted instead.
+     *
+     * @return The expanded string.
+     */
+    public @NotNull String substitute(@NotNull Function<String, String> func) {
+        if(segments.length == 0) return "";
+        if((segments.length == 1) && (segments[0] instanceof String str)) return str;
+
+        StringBuilder sb = new StringBuilder(literalLength + (names.size() * 16));
+        for(Object o : segments) {
+            if(o instanceof Var v) {
+                String value = func.apply(v.name);
+                sb.append((value == null) ? v.raw : value);
+            }
+            else {
+                sb.append((String)o);
+            }
+        }
+        return sb.toString();
+    }
+
+    public @Override @NotNull String toString() {
+        return source;
+    }
+
+    /**
+     * Parses the given string into a template.
+     *
+     * @param input The string to parse.
+     *
+     * @return The template.
+     */
+    public static @NotNull MacroTemplate compile(@NotNull CharSequence input) {
+        String str = input.toString();
+        int    end = str.length();
+
+        if(!Macros.hasSpecialChars(str, 0, end)) return new MacroTemplate(str, ((end == 0) ? List.of() : List.of(str)), end);
+
+        List<Object>  segments = new ArrayList<>();
+        StringBuilder literal  = new StringBuilder(end);
+        int           litLen   = 0;
+        int           i        = 0;
+
+        while(i < end) {
+            char ch = str.charAt(i);
+            if(ch == '$') {
+                int close = Macros.scanName(str, (i + 1), end);
+                if(close < 0) {
+                    literal.append(ch);
+                    i++;
+                }
+                else {
+                    if(!literal.isEmpty()) {
+                        litLen += literal.length();
+                        segments.add(literal.toString());
+                        literal.setLength(0);
+                    }
+                    segments.add(new Var(str.substring((i + 2), close), str.substring(i, (close + 1))));
+                    i = (close + 1);
+                }
+            }
+            else if((ch == '\\') && ((i + 1) < end)) {
+                int j = Macros.nextIndex(str, (i + 1), end);
+                literal.append(str, (i + 1), j);
+                i = j;
+            }
+            else {
+                literal.append(ch);
+                i++;
+            }
+        }
+
+        if(!literal.isEmpty()) {
+            litLen += literal.length();
+            segments.add(literal.toString());
+        }
+
+        return new MacroTemplate(str, segments, litLen);
+    }
+
+    private record Var(@NotNull String name, @NotNull String raw) { }
+}
@@ -19,70 +19,126 @@ package com.projectgalen.lib.utils.text;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.function.Function;
 
 import static java.util.Optional.ofNullable;
 
+/**
+ * Expands macros of the form <code>${name}</code> in a string. The value of each macro is looked up with a given function and is itself expanded before it is inserted. A macro that refers back to
+ * itself, directly or indirectly, is left as is. A backslash escapes the character that follows it.
+ *
+ * <p>The expansion is done in a single pass over the input directly into one {@link StringBuilder}. If a string will be expanded more than once then use {@link MacroTemplate} to parse it just
+ * once.</p>
+ */
 @SuppressWarnings("unused")
 public final class Macros {
 
-    private static final   String                             VALID = " 0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ._-";
-    private final @NotNull Set<String>                        m     = new TreeSet<>();
-    private final @NotNull Function<String, Optional<String>> f;
+    private static final String    VALID_CHARS = " 0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ._-";
+    private static final boolean[] VALID       = new boolean[128];
 
-    private Macros(@NotNull Function<String, Optional<String>> func) {
-        f = func;
-    }
+    private Macros() { }
 
-    private @NotNull String expand(@NotNull CharSequence input) {
-        StringBuilder sb = new StringBuilder();
-        for(SimpleCodePointIterator iter = new SimpleCodePointIterator(input); iter.hasNext(); ) {
-            iter.mark();
-            int ch = iter.nextCodePoint();
-            sb.append((ch == '$') ? getName(iter).filter(n -> !m.contains(n)).flatMap(this::getRepl).orElseGet(iter::getMarked) : toStr(((ch == '\\') && iter.hasNext()) ? iter.nextCodePoint() : ch));
-            iter.releaseMark();
-        }
+    public static @NotNull String expand(@NotNull CharSequence input, @NotNull Function<String, Optional<String>> func) {
+        if(!hasSpecialChars(input, 0, input.length())) return input.toString();
+        StringBuilder sb = new StringBuilder(input.length() + 16);
+        expand(input, 0, input.length(), func, sb, new ArrayList<>());
         return sb.toString();
     }
 
-    private @NotNull Optional<String> getName(@NotNull SimpleCodePointIterator iter) {
-        iter.mark();
-        if((iter.hasNext() && (iter.nextCodePoint() == '{') && iter.hasNext() && (iter.peekCodePoint() != '}'))) {
-            int           ch = iter.nextCodePoint();
-            StringBuilder sb = new StringBuilder().append(toStr(ch));
-            while(iter.hasNext() && isValid(ch = iter.nextCodePoint())) sb.append(toStr(ch));
-            if(ch == '}') {
-                iter.releaseMark();
-                return Optional.of(sb.toString());
+    public static @NotNull String expand2(@NotNull CharSequence input, @NotNull Function<String, String> func) {
+        return expand(input, s -> ofNullable(func.apply(s)));
+    }
+
+    /**
+     * Expands the value of the macro {@code name} into the given {@link StringBuilder}. If the macro is already being expanded, or it has no value, then the original macro text is appended
+     * instead.
+     *
+     * @param name  The name of the macro.
+     * @param raw   The original text of the macro including the <code>${</code> and <code>}</code>.
+     * @param func  The function used to look up the values of macros.
+     * @param sb    The {@link StringBuilder} to append to.
+     * @param guard The names of the macros currently being expanded.
+     */
+    static void expandMacro(@NotNull String name, @NotNull CharSequence raw, @NotNull Function<String, Optional<String>> func, @NotNull StringBuilder sb, @NotNull List<String> guard) {
+        if(!guard.contains(name)) {
+            Optional<String> value = func.apply(name);
+            if(value.isPresent()) {
+                String v = value.get();
+                guard.add(name);
+                try { expand(v, 0, v.length(), func, sb, guard); } finally { guard.remove(guard.size() - 1); }
+                return;
             }
         }
-        iter.resetMark();
-        return Optional.empty();
+        sb.append(raw);
     }
 
-    private @NotNull Optional<String> getRepl(@NotNull String n) {
-        m.add(n);
-        Optional<String> r = f.apply(n).map(this::expand);
-        m.remove(n);
-        return r;
+    static boolean hasSpecialChars(@NotNull CharSequence input, int start, int end) {
+        for(int i = start; i < end; i++) {
+            char ch = input.charAt(i);
+            if((ch == '$') || (ch == '\\')) return true;
+        }
+        return false;
     }
 
-    public static @NotNull String expand(@NotNull CharSequence input, @NotNull Function<String, Optional<String>> func) {
-        return new Macros(func).expand(input);
+    /**
+     * Returns the index just past the code point at {@code idx}.
+     */
+    static int nextIndex(@NotNull CharSequence input, int idx, int end) {
+        char c1 = input.charAt(idx++);
+        return ((Character.isHighSurrogate(c1) && (idx < end) && Character.isLowSurrogate(input.charAt(idx))) ? (idx + 1) : idx);
     }
 
-    public static @NotNull String expand2(@NotNull CharSequence input, @NotNull Function<String, String> func) {
-        return expand(input, s -> ofNullable(func.apply(s)));
+    /**
+     * Looks for the name of a macro starting at {@code idx}, which is the index just after a <code>$</code>.
+     *
+     * @return The index of the closing <code>}</code> or {@code -1} if there is no valid macro name at {@code idx}.
+     */
+    static int scanName(@NotNull CharSequence input, int idx, int end) {
+        if(((idx + 1) >= end) || (input.charAt(idx) != '{') || (input.charAt(idx + 1) == '}')) return -1;
+        // The first character of the name is taken as is. After that the name runs until the first character that isn't valid in a name, which has to be the closing brace.
+        for(int i = nextIndex(input, (idx + 1), end); i < end; ) {
+            int ch = Character.codePointAt(input, i);
+            if(!isValid(ch)) return ((ch == '}') ? i : -1);
+            i += Character.charCount(ch);
+        }
+        return -1;
+    }
+
+    private static void expand(@NotNull CharSequence input, int start, int end, @NotNull Function<String, Optional<String>> func, @NotNull StringBuilder sb, @NotNull List<String> guard) {
+        int i = start;
+        while(i < end) {
+            char ch = input.charAt(i);
+            if(ch == '$') {
+                int close = scanName(input, (i + 1), end);
+                if(close < 0) {
+                    sb.append(ch);
+                    i++;
+                }
+                else {
+                    expandMacro(input.subSequence((i + 2), close).toString(), input.subSequence(i, (close + 1)), func, sb, guard);
+                    i = (close + 1);
+                }
+            }
+            else if((ch == '\\') && ((i + 1) < end)) {
+                int j = nextIndex(input, (i + 1), end);
+                sb.append(input, (i + 1), j);
+                i = j;
+            }
+            else {
+                sb.append(ch);
+                i++;
+            }
+        }
     }
 
     private static boolean isValid(int ch) {
-        return VALID.codePoints().anyMatch(c -> (c == ch));
+        return ((ch < VALID.length) && VALID[ch]);
     }
 
-    private static @NotNull String toStr(int ch) {
-        return Character.toString(ch);
+    static {
+        for(int i = 0, j = VALID_CHARS.length(); i < j; i++) VALID[VALID_CHARS.charAt(i)] = true;
     }
 }
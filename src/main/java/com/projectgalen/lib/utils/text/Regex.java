@@ -17,24 +17,59 @@ package com.projectgalen.lib.utils.text;
 // NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ================================================================================================================================
 
+import com.projectgalen.lib.utils.PGProperties;
 import org.intellij.lang.annotations.Language;
 import org.intellij.lang.annotations.MagicConstant;
 import org.intellij.lang.annotations.RegExp;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Compiles and caches regular expression {@link Pattern}s. The cache is a {@link ConcurrentHashMap} so lookups never block. It is bounded by {@link #getMaxCacheSize()} and, once it grows past that
+ * bound, the least recently used patterns are evicted in a batch down to about 90% of the bound. Only one thread performs an eviction at a time and no other thread waits for it.
+ * <p>
+ * Recency is tracked the way a clock (second-chance) cache tracks it. A cache hit only sets a referenced bit, and only if it is not already set, so a pattern used from many
+ * threads is not written on every lookup, which would keep moving its cache line between cores. The eviction pass stamps every referenced pattern with the current time and
+ * clears its bit before picking the least recently used patterns.
+ */
 @SuppressWarnings("unused")
 public final class Regex {
 
-    private static final Map<CacheKey, Pattern> CACHE = new TreeMap<>();
+    private static final PGProperties              props     = PGProperties.getProperties("settings.properties", PGProperties.class);
+    private static final Map<CacheKey, CacheEntry> CACHE     = new ConcurrentHashMap<>();
+    private static final ReentrantLock             EVICTING  = new ReentrantLock();
+    private static final LongAdder                 HITS      = new LongAdder();
+    private static final LongAdder                 MISSES    = new LongAdder();
+    private static final LongAdder                 EVICTIONS = new LongAdder();
+
+    private static volatile int maxCacheSize = Math.max(1, props.getInt("regex.cache.max_size", 1024));
 
     private Regex() { }
 
+    /**
+     * Removes every pattern from the cache. The statistics are not reset.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * @return A snapshot of the cache's statistics.
+     */
+    public static @NotNull CacheStats getCacheStats() {
+        return new CacheStats(HITS.sum(), MISSES.sum(), EVICTIONS.sum(), CACHE.size(), maxCacheSize);
+    }
+
     public static @NotNull Matcher getMatcher(@NotNull @NonNls @RegExp @Language("RegExp") String regex, @MagicConstant(flagsFromClass = Pattern.class) int flags, @NotNull CharSequence input) {
         return getPattern(regex, flags).matcher(input);
     }
@@ -43,20 +78,132 @@ public final class Regex {
         return getPattern(regex, 0).matcher(input);
     }
 
+    /**
+     * @return The maximum number of patterns kept in the cache.
+     */
+    public static int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
     public static @NotNull Pattern getPattern(@NotNull @NonNls @RegExp @Language("RegExp") String regex) {
         return getPattern(regex, 0);
     }
 
     public static @NotNull Pattern getPattern(@NotNull @NonNls @RegExp @Language("RegExp") String regex, @MagicConstant(flagsFromClass = Pattern.class) int flags) {
-        synchronized(CACHE) {
-            return CACHE.computeIfAbsent(new CacheKey(regex, flags), k -> Pattern.compile(regex, flags));
+        return getEntry(regex, flags).pattern;
+    }
+
+    /**
+     * Returns a {@link Matcher} for the given regular expression that belongs to the calling thread. The same instance is handed back, {@link Matcher#reset(CharSequence) reset} to the new input,
+     * every time the calling thread asks for the same regular expression so it is only valid until the next call to this method with the same regular expression and flags from the same thread.
+     * Do not hand the returned {@link Matcher} off to another thread.
+     *
+     * @param regex The regular expression.
+     * @param flags The flags.
+     * @param input The input to match against.
+     *
+     * @return The calling thread's {@link Matcher}, reset to the given input.
+     */
+    public static @NotNull Matcher getThreadMatcher(@NotNull @NonNls @RegExp @Language("RegExp") String regex, @MagicConstant(flagsFromClass = Pattern.class) int flags, @NotNull CharSequence input) {
+        return getEntry(regex, flags).matcher.get().reset(input);
+    }
+
+    /**
+     * Returns a {@link Matcher} for the given regular expression that belongs to the calling thread. See {@link #getThreadMatcher(String, int, CharSequence)}.
+     *
+     * @param regex The regular expression.
+     * @param input The input to match against.
+     *
+     * @return The calling thread's {@link Matcher}, reset to the given input.
+     */
+    public static @NotNull Matcher getThreadMatcher(@NotNull @NonNls @RegExp @Language("RegExp") String regex, @NotNull CharSequence input) {
+        return getThreadMatcher(regex, 0, input);
+    }
+
+    /**
+     * Sets the maximum number of patterns kept in the cache. If the cache currently holds more than this number then the least recently used patterns are evicted right away.
+     *
+     * @param size The new maximum. Must be greater than zero.
+     */
+    public static void setMaxCacheSize(int size) {
+        if(size < 1) throw new IllegalArgumentException("Cache size must be greater than zero: %d".formatted(size));
+        maxCacheSize = size;
+        evictIfNeeded();
+    }
+
+    private static void evictIfNeeded() {
+        int max = maxCacheSize;
+        if((CACHE.size() > max) && EVICTING.tryLock()) {
+            try {
+                List<Map.Entry<CacheKey, CacheEntry>> entries = new ArrayList<>(CACHE.entrySet());
+                int                                   count   = (entries.size() - Math.max(1, ((max * 9) / 10)));
+                if(count > 0) {
+                    long now = System.nanoTime();
+                    for(Map.Entry<CacheKey, CacheEntry> e : entries) e.getValue().sweep(now);
+                    entries.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+                    for(int i = 0; i < count; i++) if(CACHE.remove(entries.get(i).getKey(), entries.get(i).getValue())) EVICTIONS.increment();
+                }
+            }
+            finally {
+                EVICTING.unlock();
+            }
+        }
+    }
+
+    private static @NotNull CacheEntry getEntry(@NotNull String regex, int flags) {
+        CacheKey   key   = new CacheKey(regex, flags);
+        CacheEntry entry = CACHE.get(key);
+
+        if(entry == null) {
+            MISSES.increment();
+            entry = CACHE.computeIfAbsent(key, k -> new CacheEntry(Pattern.compile(k.regex, k.flags)));
+            evictIfNeeded();
+        }
+        else {
+            HITS.increment();
+            if(!entry.referenced) entry.referenced = true;
+        }
+
+        return entry;
+    }
+
+    /**
+     * A point-in-time view of the pattern cache's statistics.
+     *
+     * @param hits      The number of lookups that found a cached pattern.
+     * @param misses    The number of lookups that had to compile a pattern.
+     * @param evictions The number of patterns evicted to keep the cache within its bound.
+     * @param size      The number of patterns currently cached.
+     * @param maxSize   The maximum number of patterns kept in the cache.
+     */
+    public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+        public double hitRate() {
+            long total = (hits + misses);
+            return ((total == 0) ? 0.0 : (((double)hits) / total));
         }
     }
 
-    private record CacheKey(@NotNull @NonNls @RegExp @Language("RegExp") String regex, @MagicConstant(flagsFromClass = Pattern.class) int flags) implements Comparable<CacheKey> {
-        public @Override int compareTo(@NotNull Regex.CacheKey o) {
-            int c = regex.compareTo(o.regex);
-            return ((c == 0) ? Integer.compare(flags, o.flags) : c);
+    private record CacheKey(@NotNull @NonNls @RegExp @Language("RegExp") String regex, @MagicConstant(flagsFromClass = Pattern.class) int flags) { }
+
+    private static final class CacheEntry {
+        private final @NotNull Pattern              pattern;
+        private final @NotNull ThreadLocal<Matcher> matcher;
+        // Only used to pick eviction victims so a lost update between racing threads doesn't matter.
+        private                long                 lastUsed;
+        private                boolean              referenced;
+
+        private CacheEntry(@NotNull Pattern pattern) {
+            this.pattern    = pattern;
+            this.matcher    = ThreadLocal.withInitial(() -> pattern.matcher(""));
+            this.lastUsed   = System.nanoTime();
+            this.referenced = true;
+        }
+
+        private void sweep(long now) {
+            if(referenced) {
+                lastUsed   = now;
+                referenced = false;
+            }
         }
     }
 }
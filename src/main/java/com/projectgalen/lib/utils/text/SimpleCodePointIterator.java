@@ -23,11 +23,16 @@ import com.projectgalen.lib.utils.collections.Markable;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
 
+/**
+ * Iterates over the code points of a {@link CharSequence}. The primitive methods {@link #nextCodePoint()}, {@link #peekCodePoint()}, {@link #nextInt()} and
+ * {@link #nextCodePoints(int[], int, int)} do not allocate anything. Unpaired surrogates, and a high surrogate whose low surrogate falls outside of the range being iterated, are returned as is.
+ */
 @SuppressWarnings("unused")
-public final class SimpleCodePointIterator implements Iterator<Integer>, Markable<String>, Peekable<Integer> {
+public final class SimpleCodePointIterator implements PrimitiveIterator.OfInt, Markable<String>, Peekable<Integer> {
 
     private static final PGResourceBundle msgs = new PGResourceBundle("com.projectgalen.lib.utils.messages");
 
@@ -63,7 +68,7 @@ public final class SimpleCodePointIterator implements Iterator<Integer>, Markabl
     }
 
     public synchronized int count() {
-        if(count < 0) count = (int)(input.subSequence(start, end).codePoints().count() & Integer.MAX_VALUE);
+        if(count < 0) count = Character.codePointCount(input, start, end);
         return count;
     }
 
@@ -111,9 +116,36 @@ public final class SimpleCodePointIterator implements Iterator<Integer>, Markabl
     }
 
     public int nextCodePoint() {
-        int[] n = _next();
-        idx = n[1];
-        return n[0];
+        int cp = peekCodePoint();
+        idx += Character.charCount(cp);
+        return cp;
+    }
+
+    /**
+     * Reads up to {@code len} code points into {@code dst} starting at index {@code off}.
+     *
+     * @param dst The array to store the code points in.
+     * @param off The index in {@code dst} of the first code point.
+     * @param len The maximum number of code points to read.
+     *
+     * @return The number of code points read, which is zero if there are no more code points.
+     *
+     * @throws IndexOutOfBoundsException if {@code off} or {@code len} are out of bounds for {@code dst}.
+     */
+    public int nextCodePoints(int @NotNull [] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        int i = off;
+        int j = (off + len);
+        while((i < j) && (idx < end)) {
+            int cp = codePointAt(input, idx, end);
+            idx += Character.charCount(cp);
+            dst[i++] = cp;
+        }
+        return (i - off);
+    }
+
+    public @Override int nextInt() {
+        return nextCodePoint();
     }
 
     public @Override @NotNull Integer peek() {
@@ -121,29 +153,46 @@ public final class SimpleCodePointIterator implements Iterator<Integer>, Markabl
     }
 
     public int peekCodePoint() {
-        return _next()[0];
+        if(!hasNext()) throw new NoSuchElementException();
+        return codePointAt(input, idx, end);
     }
 
     public @Override void releaseMark() {
         if(markIdx == 0) throw new NoSuchElementException(msgs.getString("msg.err.no_mark_found"));
         --markIdx;
-        if((marks.length > 5) && (markIdx <= (marks.length / 2))) marks = Arrays.copyOf(marks, (marks.length / 2));
+        shrinkMarks();
     }
 
     public @Override void resetMark() {
         if(markIdx == 0) throw new NoSuchElementException(msgs.getString("msg.err.no_mark_found"));
         idx = marks[--markIdx];
-        if((marks.length > 5) && (markIdx <= (marks.length / 2))) marks = Arrays.copyOf(marks, (marks.length / 2));
-    }
-
-    private int @NotNull [] _next() {
-        if(!hasNext()) throw new NoSuchElementException();
-        int  i  = idx;
-        char c1 = input.charAt(i++);
-        if(Character.isHighSurrogate(c1) && (i < end)) {
-            char c2 = input.charAt(i);
-            if(Character.isLowSurrogate(c2)) return new int[] { Character.toCodePoint(c1, c2), (i + 1) };
+        shrinkMarks();
+    }
+
+    private void shrinkMarks() {
+        // Only shrink once the stack is down to a quarter so that mark/release pairs at the boundary don't reallocate every time.
+        if((marks.length > 5) && (markIdx <= (marks.length / 4))) marks = Arrays.copyOf(marks, Math.max(5, (marks.length / 2)));
+    }
+
+    /**
+     * Returns the code point at {@code index} without looking past {@code end}.
+     *
+     * @param input The character sequence.
+     * @param index The index of the code point.
+     * @param end   The index just past the last character that can be part of the code point.
+     *
+     * @return The code point.
+     */
+    static int codePointAt(@NotNull CharSequence input, int index, int end) {
+        if(input instanceof String str) {
+            int cp = str.codePointAt(index);
+            return (((cp > Character.MAX_VALUE) && ((index + 1) >= end)) ? str.charAt(index) : cp);
+        }
+        char c1 = input.charAt(index++);
+        if(Character.isHighSurrogate(c1) && (index < end)) {
+            char c2 = input.charAt(index);
+            if(Character.isLowSurrogate(c2)) return Character.toCodePoint(c1, c2);
         }
-        return new int[] { c1, i };
+        return c1;
     }
 }
@@ -18,21 +18,249 @@ package com.projectgalen.lib.utils.text;
 // ================================================================================================================================
 
 import com.projectgalen.lib.utils.PGArrays;
+import com.projectgalen.lib.utils.PGResourceBundle;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Base64;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
+/**
+ * String utilities. The Base64 methods use the basic alphabet of RFC 4648, the same as {@link java.util.Base64#getEncoder()} and
+ * {@link java.util.Base64#getDecoder()}, but they read from and write to {@link CharSequence}s, {@link ByteBuffer}s, {@link Appendable}s and caller-supplied
+ * arrays directly rather than going through intermediate {@link String}s and {@code byte[]}s.
+ */
 @SuppressWarnings("unused")
 public final class Str {
+    private static final PGResourceBundle msgs       = new PGResourceBundle("com.projectgalen.lib.utils.messages");
+    private static final byte[]           B64_CHARS  = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[]           B64_VALUES = new byte[128];
+    private static final byte             B64_PAD    = '=';
+
+    static {
+        Arrays.fill(B64_VALUES, (byte)-1);
+        for(int i = 0; i < B64_CHARS.length; ++i) B64_VALUES[B64_CHARS[i]] = (byte)i;
+    }
+
     private Str() { }
 
+    /**
+     * Decodes the remaining bytes of {@code src}, which must be Base64 encoded ASCII, into {@code dst}. On return the position of {@code src} is at its limit and
+     * the position of {@code dst} has been advanced past the decoded bytes. Either buffer may be direct.
+     *
+     * @param src The Base64 encoded text.
+     * @param dst The buffer to receive the decoded bytes.
+     *
+     * @return The number of bytes stored in {@code dst}.
+     *
+     * @throws IllegalArgumentException If {@code src} is not valid Base64.
+     * @throws BufferOverflowException  If {@code dst} does not have enough room for the decoded bytes.
+     */
+    public static int base64Decode(@NotNull ByteBuffer src, @NotNull ByteBuffer dst) {
+        int start = src.position();
+        int len   = base64DataLength(src.limit() - start, i -> src.get(start + i));
+        int size  = base64DecodedLength(len);
+        if(dst.remaining() < size) throw new BufferOverflowException();
+
+        int full = (start + (len & ~3));
+        int i    = start;
+        while(i < full) {
+            int bits = ((b64Value(src.get(i++)) << 18) | (b64Value(src.get(i++)) << 12) | (b64Value(src.get(i++)) << 6) | b64Value(src.get(i++)));
+            dst.put((byte)(bits >> 16)).put((byte)(bits >> 8)).put((byte)bits);
+        }
+        int rem = (len & 3);
+        if(rem > 0) {
+            int bits = ((b64Value(src.get(i++)) << 18) | (b64Value(src.get(i++)) << 12) | ((rem == 3) ? (b64Value(src.get(i)) << 6) : 0));
+            dst.put((byte)(bits >> 16));
+            if(rem == 3) dst.put((byte)(bits >> 8));
+        }
+        src.position(src.limit());
+        return size;
+    }
+
+    /**
+     * Decodes Base64 encoded text directly into a caller-supplied array.
+     *
+     * @param src       The Base64 encoded text.
+     * @param dst       The array to receive the decoded bytes. Use {@link #base64DecodedLength(CharSequence)} to find out how much room is needed.
+     * @param dstOffset The index in {@code dst} of the first decoded byte.
+     *
+     * @return The number of bytes stored in {@code dst}.
+     *
+     * @throws IllegalArgumentException  If {@code src} is not valid Base64.
+     * @throws IndexOutOfBoundsException If {@code dst} does not have enough room for the decoded bytes.
+     */
+    public static int base64Decode(@NotNull CharSequence src, byte @NotNull [] dst, int dstOffset) {
+        int len  = base64DataLength(src.length(), src::charAt);
+        int size = base64DecodedLength(len);
+        Objects.checkFromIndexSize(dstOffset, size, dst.length);
+
+        int full = (len & ~3);
+        int i    = 0;
+        int d    = dstOffset;
+        while(i < full) {
+            int bits = ((b64Value(src.charAt(i++)) << 18) | (b64Value(src.charAt(i++)) << 12) | (b64Value(src.charAt(i++)) << 6) | b64Value(src.charAt(i++)));
+            dst[d++] = (byte)(bits >> 16);
+            dst[d++] = (byte)(bits >> 8);
+            dst[d++] = (byte)bits;
+        }
+        int rem = (len & 3);
+        if(rem > 0) {
+            int bits = ((b64Value(src.charAt(i++)) << 18) | (b64Value(src.charAt(i++)) << 12) | ((rem == 3) ? (b64Value(src.charAt(i)) << 6) : 0));
+            dst[d++] = (byte)(bits >> 16);
+            if(rem == 3) dst[d] = (byte)(bits >> 8);
+        }
+        return size;
+    }
+
+    /**
+     * Decodes Base64 encoded text. Unlike {@link java.util.Base64.Decoder#decode(String)} the text is not first copied into a temporary {@code byte[]}.
+     *
+     * @param src The Base64 encoded text.
+     *
+     * @return The decoded bytes.
+     *
+     * @throws IllegalArgumentException If {@code src} is not valid Base64.
+     */
+    public static byte @NotNull [] base64Decode(@NotNull CharSequence src) {
+        byte[] dst = new byte[base64DecodedLength(src)];
+        base64Decode(src, dst, 0);
+        return dst;
+    }
+
     public static byte @NotNull [] base64Decode(@NotNull String src) {
-        return Base64.getDecoder().decode(src);
+        return base64Decode((CharSequence)src);
+    }
+
+    /**
+     * @param src The Base64 encoded text.
+     *
+     * @return The number of bytes {@code src} decodes to.
+     *
+     * @throws IllegalArgumentException If the length or padding of {@code src} is not valid.
+     */
+    public static int base64DecodedLength(@NotNull CharSequence src) {
+        return base64DecodedLength(base64DataLength(src.length(), src::charAt));
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code src} as Base64 encoded ASCII into {@code dst}. On return the position of {@code src} is at its limit and the position
+     * of {@code dst} has been advanced past the encoded bytes. Either buffer may be direct.
+     *
+     * @param src The bytes to encode.
+     * @param dst The buffer to receive the Base64 encoded text.
+     *
+     * @return The number of bytes stored in {@code dst}.
+     *
+     * @throws BufferOverflowException If {@code dst} does not have enough room for the encoded text.
+     */
+    public static int base64Encode(@NotNull ByteBuffer src, @NotNull ByteBuffer dst) {
+        int len  = src.remaining();
+        int size = base64EncodedLength(len);
+        if(dst.remaining() < size) throw new BufferOverflowException();
+
+        for(int i = 0; i < len; i += 3) {
+            int n = Math.min(3, (len - i));
+            int q = base64Quantum(src.get(), ((n > 1) ? src.get() : 0), ((n > 2) ? src.get() : 0), n);
+            dst.put((byte)(q >>> 24)).put((byte)(q >>> 16)).put((byte)(q >>> 8)).put((byte)q);
+        }
+        return size;
     }
 
     public static @NotNull String base64Encode(byte @NotNull [] data) {
-        return Base64.getEncoder().encodeToString(data);
+        return base64Encode(data, 0, data.length);
+    }
+
+    public static @NotNull String base64Encode(byte @NotNull [] data, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        byte[] buffer = new byte[base64EncodedLength(length)];
+        int    start  = (buffer.length - length);
+        System.arraycopy(data, offset, buffer, start, length);
+        return new String(buffer, 0, base64EncodeInPlace(buffer, start, length), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Appends the Base64 encoding of the given bytes to a {@link StringBuilder} without creating any intermediate objects.
+     *
+     * @param data   The bytes to encode.
+     * @param offset The index of the first byte to encode.
+     * @param length The number of bytes to encode.
+     * @param out    The {@link StringBuilder} to append to.
+     *
+     * @return The {@link StringBuilder}.
+     */
+    public static @NotNull StringBuilder base64Encode(byte @NotNull [] data, int offset, int length, @NotNull StringBuilder out) {
+        // A StringBuilder never throws IOException.
+        try { base64Encode(data, offset, length, (Appendable)out); } catch(IOException e) { throw new IllegalStateException(e); }
+        return out;
+    }
+
+    /**
+     * Appends the Base64 encoding of the given bytes to an {@link Appendable}. If the {@link Appendable} is a {@link StringBuilder} its capacity is grown once
+     * up front.
+     *
+     * @param data   The bytes to encode.
+     * @param offset The index of the first byte to encode.
+     * @param length The number of bytes to encode.
+     * @param out    The {@link Appendable} to append to.
+     *
+     * @return The {@link Appendable}.
+     *
+     * @throws IOException If the {@link Appendable} throws one.
+     */
+    public static <T extends Appendable> @NotNull T base64Encode(byte @NotNull [] data, int offset, int length, @NotNull T out) throws IOException {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        if(out instanceof StringBuilder sb) sb.ensureCapacity(sb.length() + base64EncodedLength(length));
+        for(int i = offset, end = (offset + length); i < end; i += 3) {
+            int n = Math.min(3, (end - i));
+            int q = base64Quantum(data[i], ((n > 1) ? data[i + 1] : 0), ((n > 2) ? data[i + 2] : 0), n);
+            out.append((char)(q >>> 24)).append((char)((q >>> 16) & 0xff)).append((char)((q >>> 8) & 0xff)).append((char)(q & 0xff));
+        }
+        return out;
+    }
+
+    /**
+     * Base64 encodes bytes that are stored at the end of an array into ASCII at the start of the same array. This lets the caller produce data, for example
+     * with {@code Cipher.doFinal(input, 0, len, buffer, start)}, and encode it without a second buffer. Because Base64 output is written more slowly than the
+     * input is read the encoder never overwrites input it has not read yet as long as {@code start} is at least
+     * {@code base64EncodedLength(length) - length}.
+     *
+     * @param buffer The array.
+     * @param start  The index of the first byte to encode.
+     * @param length The number of bytes to encode.
+     *
+     * @return The number of ASCII characters stored at the start of {@code buffer}.
+     *
+     * @throws IndexOutOfBoundsException If the bytes to encode are not far enough from the start of the array.
+     */
+    public static int base64EncodeInPlace(byte @NotNull [] buffer, int start, int length) {
+        int size = base64EncodedLength(length);
+        Objects.checkFromIndexSize(start, length, buffer.length);
+        if(size > buffer.length || start < (size - length)) throw new IndexOutOfBoundsException(msgs.getString("msg.err.index_oob"));
+
+        for(int i = start, end = (start + length), d = 0; i < end; i += 3, d += 4) {
+            int n = Math.min(3, (end - i));
+            int q = base64Quantum(buffer[i], ((n > 1) ? buffer[i + 1] : 0), ((n > 2) ? buffer[i + 2] : 0), n);
+            buffer[d]     = (byte)(q >>> 24);
+            buffer[d + 1] = (byte)(q >>> 16);
+            buffer[d + 2] = (byte)(q >>> 8);
+            buffer[d + 3] = (byte)q;
+        }
+        return size;
+    }
+
+    /**
+     * @param length The number of bytes to encode.
+     *
+     * @return The number of characters, including padding, in the Base64 encoding of {@code length} bytes.
+     */
+    public static int base64EncodedLength(int length) {
+        return Math.multiplyExact(((length / 3) + (((length % 3) == 0) ? 0 : 1)), 4);
     }
 
     public static @Contract("null,_->null;!null,_->!null") String leftStr(String str, int len) {
@@ -63,4 +291,38 @@ public final class Str {
     public static @Contract("null,_->null;!null,_->!null") String rightStr(String str, int len) {
         return ((str == null) ? null : ((len < 0) ? rightStr(str, Math.max(0, (str.length() + len))) : ((len == 0) ? "" : ((len >= str.length()) ? str : str.substring(str.length() - len)))));
     }
+
+    /**
+     * Works out how many characters of Base64 input are data rather than padding, checking the length and the padding as it goes. Like
+     * {@link java.util.Base64.Decoder} the padding is optional but, if it is there, it must be correct.
+     */
+    private static int base64DataLength(int length, @NotNull IntUnaryOperator charAt) {
+        int pad = 0;
+        while((pad < 2) && (length > pad) && (charAt.applyAsInt(length - pad - 1) == B64_PAD)) ++pad;
+        int len = (length - pad);
+        if(((len & 3) == 1) || ((pad > 0) && (((length & 3) != 0) || ((len & 3) == 0)))) throw new IllegalArgumentException(msgs.getString("msg.err.base64.bad_length"));
+        return len;
+    }
+
+    private static int base64DecodedLength(int dataLength) {
+        return (((dataLength >> 2) * 3) + Math.max(0, ((dataLength & 3) - 1)));
+    }
+
+    /**
+     * Encodes one quantum of up to three bytes, padding the output if {@code count} is less than three.
+     *
+     * @return The four ASCII characters packed into an {@code int}, the first one in the high byte.
+     */
+    private static int base64Quantum(int b0, int b1, int b2, int count) {
+        int bits = (((b0 & 0xff) << 16) | ((b1 & 0xff) << 8) | (b2 & 0xff));
+        int c2   = ((count > 1) ? B64_CHARS[(bits >>> 6) & 0x3f] : B64_PAD);
+        int c3   = ((count > 2) ? B64_CHARS[bits & 0x3f] : B64_PAD);
+        return ((B64_CHARS[(bits >>> 18) & 0x3f] << 24) | (B64_CHARS[(bits >>> 12) & 0x3f] << 16) | (c2 << 8) | c3);
+    }
+
+    private static int b64Value(int ch) {
+        int v = ((ch >= 0 && ch < 128) ? B64_VALUES[ch] : -1);
+        if(v < 0) throw new IllegalArgumentException(msgs.format("msg.err.base64.illegal_char", ch));
+        return v;
+    }
 }
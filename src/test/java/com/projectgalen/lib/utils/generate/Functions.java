@@ -29,6 +29,9 @@ import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
 public class Functions {
@@ -47,15 +50,22 @@ public class Functions {
         true,  // double
     };
     public static final String[][] data    = {
-        { "boolean", "Boolean", "Boolean",   "", "", "", },
-        { "char",    "Char",    "Character", "", "", "", },
-        { "byte",    "Byte",    "Byte",      "", "", "", },
-        { "short",   "Short",   "Short",     "", "", "", },
-        { "int",     "Int",     "Integer",   "", "", "", },
-        { "long",    "Long",    "Long",      "", "", "", },
-        { "float",   "Float",   "Float",     "", "", "", },
-        { "double",  "Double",  "Double",    "", "", "", },
-    };/*@f1*/
+        { "boolean", "Boolean", "Boolean",   "false",    "", "", },
+        { "char",    "Char",    "Character", "'\\0'",    "", "", },
+        { "byte",    "Byte",    "Byte",      "(byte)0",  "", "", },
+        { "short",   "Short",   "Short",     "(short)0", "", "", },
+        { "int",     "Int",     "Integer",   "0",        "", "", },
+        { "long",    "Long",    "Long",      "0L",       "", "", },
+        { "float",   "Float",   "Float",     "0.0f",     "", "", },
+        { "double",  "Double",  "Double",    "0.0",      "", "", },
+    };
+    public static final int[]      stacks  = {
+        1, // char
+        4, // int
+        5, // long
+        7, // double
+    };
+    public static final int[]      all     = { 0, 1, 2, 3, 4, 5, 6, 7, };/*@f1*/
 
     public static final @NotNull         SimpleDateFormat SDF_DAY          = new SimpleDateFormat(props.getProperty("fmt.day"));
     public static final @NotNull         SimpleDateFormat SDF_MONTH        = new SimpleDateFormat(props.getProperty("fmt.month"));
@@ -67,7 +77,10 @@ public class Functions {
     public static final @NotNull @NonNls String           KEY_YEAR         = props.getProperty("velocity.key.year");
     public static final @NotNull @NonNls String           KEY_PACKAGE      = props.getProperty("velocity.key.package");
     public static final @NotNull @NonNls String           OUTPUT_BASE_PATH = "com/projectgalen/lib/utils/functions/primitives";
+    public static final @NotNull @NonNls String           COLLECTIONS_PATH = "com/projectgalen/lib/utils/collections";
     public static final @NotNull @NonNls String           TEMPLATE_PATH    = "com/projectgalen/lib/utils/generate/templates";
+    public static final @NotNull         Pattern          HEADER_DATE      = Pattern.compile("^//\\s+DATE: (.+)$");
+    public static final @NotNull         Pattern          HEADER_YEAR      = Pattern.compile("^// Copyright © (\\d+) ");
 
     private final @NotNull VelocityContext _context = new VelocityContext();
 
@@ -80,6 +93,16 @@ public class Functions {
 
         String pfx = "velocity.prop.";
         props.stringPropertyNames().stream().filter(n -> n.startsWith(pfx)).forEach(n -> _context.put(n.substring(pfx.length()), props.getProperty(n)));
+        _context.put("fn", this);
+    }
+
+    /**
+     * Pads {@code str} with spaces to the width of the widest entry in {@code column}. The templates use this to line up declarations whose type column
+     * holds {@code ${type}} because its width changes with every generated type.
+     */
+    public @NotNull String pad(@NotNull String str, @NotNull List<String> column) {
+        int width = column.stream().mapToInt(String::length).max().orElse(0);
+        return ((str.length() < width) ? (str + " ".repeat(width - str.length())) : str);
     }
 
     public int run(String... args) throws Exception {/*@f0*/
@@ -104,6 +127,13 @@ public class Functions {
         foo(getPath("xtoobj"),     "xfunction-ex",    "%sFunctionEx",                            true);
         foo(getPath("predicates"), "Xpredicate-ex",   "%sPredicateEx",                           true);
         foo(getPath("predicates"), "biXpredicate-ex", "Bi%sPredicateEx",                         true);
+
+        bar(setPackage(COLLECTIONS_PATH), "stack-array",      "%sArrayStack",      stacks);
+        bar(setPackage(COLLECTIONS_PATH), "stack-sync",       "%sStack",           stacks);
+        bar(setPackage(COLLECTIONS_PATH), "stack-concurrent", "Concurrent%sStack", stacks);
+        bar(setPackage(COLLECTIONS_PATH), "list",             "%sArrayList",       all);
+        bar(setPackage(COLLECTIONS_PATH), "hashset",          "%sHashSet",         all);
+        bar(setPackage(COLLECTIONS_PATH), "hashmap",          "%sObjectHashMap",   all);
 /*@f1*/
         return 0;
     }
@@ -146,6 +176,26 @@ public class Functions {
         }
     }
 
+    private void bar(@NotNull String path, @NotNull String vmFilename, @NotNull String classNameTemplate, int @NotNull ... types) throws IOException {
+        for(int i : types) {
+            String[] type      = data[i];
+            String   className = setClassName(classNameTemplate.formatted(type[1]));
+            File     file      = getFile(path, className);
+
+            _context.put("type", type[0]);
+            _context.put("typeCap", type[1]);
+            _context.put("typeWrap", type[2]);
+            _context.put("zero", type[3]);
+            _context.put("special", special[i]);
+            _context.put("consumersPkg", getFunctionPackage(i, "consumers"));
+            _context.put("predicatesPkg", getFunctionPackage(i, "predicates"));
+            _context.put("x2yPkg", getFunctionPackage(i, "x2y"));
+            _context.put("xtoobjPkg", getFunctionPackage(i, "xtoobj"));
+
+            merge(file, "%s/%s.vm".formatted(TEMPLATE_PATH, vmFilename));
+        }
+    }
+
     private @NotNull File getFile(@NotNull String path, @NotNull String className) {
         String filename = "%s.java".formatted(className);
         File   file     = new File("src/main/java/" + path, filename);
@@ -155,16 +205,48 @@ public class Functions {
         return file;
     }
 
+    /**
+     * The non-Ex functional interfaces for the special types come from java.util.function so they are not generated.
+     */
+    private @NotNull String getFunctionPackage(int typeIndex, @NotNull String subPath) {
+        return (special[typeIndex] ? "java.util.function" : "%s/%s".formatted(OUTPUT_BASE_PATH, subPath).replace("/", "."));
+    }
+
     private @NotNull String getPath(@NotNull String subPath) {
-        String path = "%s/%s".formatted(OUTPUT_BASE_PATH, subPath);
-        _context.put(KEY_PACKAGE, path.replace("/", "."));
-        return path;
+        return setPackage("%s/%s".formatted(OUTPUT_BASE_PATH, subPath));
+    }
+
+    /**
+     * An existing file keeps the date and copyright year from its header so that regenerating it does not make it look new.
+     */
+    private void keepHeaderDate(@NotNull File file) throws IOException {
+        if(!file.isFile()) return;
+        try(BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            for(int i = 0; (i < 20) && ((line = r.readLine()) != null); i++) {
+                Matcher m;
+                if((m = HEADER_DATE.matcher(line)).find()) _context.put(KEY_DATE, m.group(1));
+                else if((m = HEADER_YEAR.matcher(line)).find()) _context.put(KEY_YEAR, m.group(1));
+            }
+        }
     }
 
     private void merge(File file, String _vmFilename) throws IOException {
+        Object date = _context.get(KEY_DATE);
+        Object year = _context.get(KEY_YEAR);
+        keepHeaderDate(file);
         try(Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
             Velocity.getTemplate(_vmFilename).merge(_context, w);
         }
+        finally {
+            _context.put(KEY_DATE, date);
+            _context.put(KEY_YEAR, year);
+        }
+    }
+
+    private @NotNull String setPackage(@NotNull String path) {
+        _context.put(KEY_PACKAGE, path.replace("/", "."));
+        return path;
     }
 
     private @NotNull String setClassName(@NotNull String className) {